@@ -11,14 +11,18 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigDelta;
 import com.example.dbconfig.core.ConfigSnapshot;
 import com.example.dbconfig.core.ConfigSnapshotProvider;
 import com.example.dbconfig.core.ConfigSnapshotUpdatedEvent;
 import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.ConfigVersionVector;
+import com.example.dbconfig.core.RefreshDeadline;
 import com.example.dbconfig.core.RetryExecutor;
 import com.example.dbconfig.core.TriggerReason;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyCaching;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.env.ConfigurableEnvironment;
 
@@ -33,6 +37,12 @@ public class ConfigRefreshOrchestrator {
     private final DbConfigRefreshMetrics metrics;
     private final ApplicationEventPublisher eventPublisher;
     private final Clock clock;
+    private volatile ConfigVersion appliedVersion;
+    private volatile ConfigVersionVector appliedVersionVector;
+    private volatile List<String> appliedProfiles = List.of();
+    private volatile Instant lastFullLoadAt = Instant.EPOCH;
+    private ConfigurationPropertyCaching bindingCache;
+    private boolean bindingCacheResolved;
 
     public ConfigRefreshOrchestrator(ConfigSnapshotProvider snapshotProvider,
             DbConfigPropertySource propertySource,
@@ -71,7 +81,17 @@ public class ConfigRefreshOrchestrator {
     }
 
     public Optional<ConfigVersion> fetchVersion() {
-        return withRetry("fetchVersion", snapshotProvider::fetchVersion, metrics::recordDbLastUpdatedTime);
+        ActiveProfiles profiles = new ActiveProfiles(resolveProfiles());
+        return withRetry("fetchVersion", () -> snapshotProvider.fetchVersion(profiles), metrics::recordDbLastUpdatedTime);
+    }
+
+    public Optional<ConfigVersionVector> fetchVersionVector() {
+        ActiveProfiles profiles = new ActiveProfiles(resolveProfiles());
+        return withRetry("fetchVersionVector", () -> snapshotProvider.fetchVersionVector(profiles), metrics::recordDbLastUpdatedTime);
+    }
+
+    public ConfigVersionVector getAppliedVersionVector() {
+        return appliedVersionVector;
     }
 
     private synchronized RefreshResult refreshNow(TriggerReason reason, boolean initialLoad) {
@@ -79,26 +99,143 @@ public class ConfigRefreshOrchestrator {
         List<String> profiles = resolveProfiles();
         state.onAttempt(start, profiles);
 
+        RefreshDeadline.Handle scope = RefreshDeadline.after(properties.getRefresh().getDeadline()).activate();
         try {
+            Optional<ConfigVersionVector> vector = withRetry("fetchVersionVector", () -> snapshotProvider.fetchVersionVector(new ActiveProfiles(profiles)), metrics::recordDbLastUpdatedTime);
+            boolean incremental = isIncrementalEligible(reason, initialLoad, profiles, start);
+            if (incremental && vector.isPresent() && vector.get().equals(appliedVersionVector)) {
+                state.onSuccess(clock.instant(), appliedVersion, propertySource.size());
+                return new RefreshResult(true, 0, appliedVersion, Duration.between(start, clock.instant()).toMillis(), reason.name(), "No changes in active profile layers");
+            }
+            if (incremental) {
+                ConfigVersion since = appliedVersion;
+                Optional<ConfigDelta> delta = withRetry("fetchDelta", () -> snapshotProvider.fetchDelta(new ActiveProfiles(profiles), since), metrics::recordDbLoadAllTime);
+                if (delta.isPresent()) {
+                    RefreshResult result = applyDelta(delta.get(), reason, start, profiles);
+                    appliedVersionVector = vector.orElse(null);
+                    return result;
+                }
+            }
             ConfigSnapshot snapshot = withRetry("fetchSnapshot", () -> snapshotProvider.fetchSnapshot(new ActiveProfiles(profiles)), metrics::recordDbLoadAllTime);
-            Map<String, Object> propertiesMap = snapshot.properties();
-            propertySource.reload(propertiesMap);
-            state.onRefreshTriggered();
-            metrics.incrementRefreshTriggered();
-            state.onSuccess(clock.instant(), snapshot.version().instantValue(), propertySource.size());
-            eventPublisher.publishEvent(new ConfigSnapshotUpdatedEvent(snapshot, reason));
-            return new RefreshResult(true, propertiesMap.size(), snapshot.version().instantValue(), Duration.between(start, clock.instant()).toMillis(), reason.name(), initialLoad ? "Initial snapshot loaded" : "Refresh completed");
+            return reload(snapshot, vector.orElse(null), reason, start, profiles, initialLoad ? "Initial snapshot loaded" : "Refresh completed");
         } catch (RuntimeException ex) {
             handleFailure(initialLoad ? "Initial DB config load failed" : "DB config refresh failed", ex, initialLoad);
-            return new RefreshResult(false, 0, state.getLastDbVersionSeen(), Duration.between(start, clock.instant()).toMillis(), reason.name(), summarize(ex));
+            return new RefreshResult(false, 0, state.getLastConfigVersion(), Duration.between(start, clock.instant()).toMillis(), reason.name(), summarize(ex));
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Applies a snapshot that was fetched outside the orchestrator, e.g. by a reactive provider, and records the outcome
+     * the same way {@link #requestRefresh} does. A snapshot older than the applied one for the same profiles is ignored,
+     * so concurrent non-blocking fetches cannot roll the property source back.
+     */
+    public synchronized RefreshResult applySnapshot(ConfigSnapshot snapshot, TriggerReason reason, Instant start) {
+        state.onAttempt(start, snapshot.profilesUsed());
+        if (appliedVersion != null && appliedProfiles.equals(snapshot.profilesUsed())
+                && appliedVersion.isComparableTo(snapshot.version()) && appliedVersion.isNewerThan(snapshot.version())) {
+            return new RefreshResult(true, 0, appliedVersion, Duration.between(start, clock.instant()).toMillis(), reason.name(), "Stale snapshot ignored");
+        }
+        try {
+            return reload(snapshot, null, reason, start, snapshot.profilesUsed(), "Refresh completed");
+        } catch (RuntimeException ex) {
+            return recordFailure(reason, start, ex);
+        }
+    }
+
+    /**
+     * Records a refresh failure raised outside the orchestrator. Throws like {@link #requestRefresh} when fail-soft is off.
+     */
+    public RefreshResult recordFailure(TriggerReason reason, Instant start, RuntimeException ex) {
+        handleFailure("DB config refresh failed", ex, false);
+        return new RefreshResult(false, 0, state.getLastConfigVersion(), Duration.between(start, clock.instant()).toMillis(), reason.name(), summarize(ex));
+    }
+
+    /**
+     * True when {@code version} is already applied for {@code profiles}, i.e. a fetch would not change anything.
+     */
+    public boolean isApplied(ConfigVersion version, List<String> profiles) {
+        ConfigVersion applied = appliedVersion;
+        return applied != null && appliedProfiles.equals(profiles) && !version.differsFrom(applied);
+    }
+
+    public List<String> getActiveProfiles() {
+        return resolveProfiles();
+    }
+
+    public ConfigVersion getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    private RefreshResult reload(ConfigSnapshot snapshot, ConfigVersionVector vector, TriggerReason reason, Instant start, List<String> profiles, String message) {
+        Map<String, Object> propertiesMap = snapshot.properties();
+        long keySetBefore = propertySource.keySetGeneration();
+        propertySource.reload(propertiesMap, snapshot.version());
+        updateBindingCache(keySetBefore);
+        appliedVersion = snapshot.version();
+        appliedVersionVector = vector;
+        appliedProfiles = profiles;
+        lastFullLoadAt = start;
+        state.onRefreshTriggered();
+        metrics.incrementRefreshTriggered();
+        state.onSuccess(clock.instant(), snapshot.version(), propertySource.size());
+        eventPublisher.publishEvent(new ConfigSnapshotUpdatedEvent(snapshot, reason));
+        return new RefreshResult(true, propertiesMap.size(), snapshot.version(), Duration.between(start, clock.instant()).toMillis(), reason.name(), message);
+    }
+
+    private boolean isIncrementalEligible(TriggerReason reason, boolean initialLoad, List<String> profiles, Instant now) {
+        if (initialLoad || reason == TriggerReason.MANUAL || appliedVersion == null || !appliedProfiles.equals(profiles)) {
+            return false;
+        }
+        Duration reconcileInterval = properties.getRefresh().getFullReconcileInterval();
+        return reconcileInterval == null || Duration.between(lastFullLoadAt, now).compareTo(reconcileInterval) < 0;
+    }
+
+    private RefreshResult applyDelta(ConfigDelta delta, TriggerReason reason, Instant start, List<String> profiles) {
+        long keySetBefore = propertySource.keySetGeneration();
+        propertySource.apply(delta.upserts(), delta.removals(), delta.version());
+        updateBindingCache(keySetBefore);
+        appliedVersion = delta.version();
+        state.onSuccess(clock.instant(), delta.version(), propertySource.size());
+        if (delta.isEmpty()) {
+            return new RefreshResult(true, 0, delta.version(), Duration.between(start, clock.instant()).toMillis(), reason.name(), "No changes");
+        }
+        state.onRefreshTriggered();
+        metrics.incrementRefreshTriggered();
+        ConfigSnapshot snapshot = new ConfigSnapshot(propertySource.asMap(), delta.version(), delta.fetchedAt(), profiles);
+        eventPublisher.publishEvent(new ConfigSnapshotUpdatedEvent(snapshot, reason));
+        return new RefreshResult(true, delta.changedKeysCount(), delta.version(), Duration.between(start, clock.instant()).toMillis(), reason.name(), "Delta refresh completed");
+    }
+
+    private void updateBindingCache(long keySetBefore) {
+        if (!properties.getRefresh().isCacheBindings()) {
+            return;
+        }
+        if (!bindingCacheResolved) {
+            bindingCacheResolved = true;
+            try {
+                bindingCache = ConfigurationPropertyCaching.get(environment, propertySource);
+                bindingCache.enable();
+                bindingCache.clear();
+            } catch (IllegalStateException ex) {
+                log.debug("Configuration property sources are not attached; binder caching for {} is disabled", propertySource.getName());
+            }
+        }
+        else if (bindingCache != null && propertySource.keySetGeneration() != keySetBefore) {
+            bindingCache.clear();
         }
     }
 
     private <T> T withRetry(String operationName, Supplier<T> supplier, Consumer<Duration> timerRecorder) {
         Instant start = clock.instant();
+        RefreshDeadline current = RefreshDeadline.current();
+        RefreshDeadline deadline = current.isBounded() ? current : RefreshDeadline.after(properties.getRefresh().getDeadline());
+        RefreshDeadline.Handle scope = deadline.activate();
         try {
-            return RetryExecutor.execute(supplier, retryPolicy(), log, operationName);
+            return RetryExecutor.execute(supplier, retryPolicy(), log, operationName, deadline);
         } finally {
+            scope.close();
             timerRecorder.accept(Duration.between(start, clock.instant()));
         }
     }
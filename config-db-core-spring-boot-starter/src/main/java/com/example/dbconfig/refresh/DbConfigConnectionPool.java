@@ -0,0 +1,18 @@
+package com.example.dbconfig.refresh;
+
+import javax.sql.DataSource;
+
+public interface DbConfigConnectionPool {
+
+    String getPoolName();
+
+    DataSource getDataSource();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getPendingThreads();
+
+    int getMaxConnections();
+}
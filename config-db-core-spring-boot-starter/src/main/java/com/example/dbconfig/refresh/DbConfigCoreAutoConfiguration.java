@@ -1,6 +1,7 @@
 package com.example.dbconfig.refresh;
 
 import com.example.dbconfig.core.ConfigSnapshotProvider;
+import com.example.dbconfig.core.TenantConfigSnapshotProvider;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
@@ -24,7 +25,9 @@ public class DbConfigCoreAutoConfiguration {
 
     @Bean @ConditionalOnMissingBean
     DbConfigPropertySource dbConfigPropertySource(ConfigurableEnvironment environment, DbConfigPropertySourceInstaller installer, DbConfigRefreshProperties properties) {
-        return installer.installOrGet(environment, properties.getPropertySourceName(), properties.getPrecedence());
+        DbConfigPropertySource propertySource = installer.installOrGet(environment, properties.getPropertySourceName(), properties.getPrecedence());
+        propertySource.setPackedThreshold(properties.getPackedSnapshotThreshold());
+        return propertySource;
     }
 
     @Bean @ConditionalOnMissingBean
@@ -41,6 +44,14 @@ public class DbConfigCoreAutoConfiguration {
     @Bean @ConditionalOnBean(ConfigRefreshOrchestrator.class) @ConditionalOnProperty(prefix="dbconfig.refresh.polling",name="enabled",havingValue="true",matchIfMissing=true)
     PollingRefreshTrigger pollingRefreshTrigger(ConfigRefreshOrchestrator orchestrator, DbConfigRefreshProperties properties) { return new PollingRefreshTrigger(orchestrator, properties); }
 
+    @Bean @ConditionalOnBean(TenantConfigSnapshotProvider.class) @ConditionalOnMissingBean
+    DbConfigTenantSource dbConfigTenantSource(DbConfigPropertySource propertySource) { return new DbConfigTenantSource(propertySource); }
+
+    @Bean @ConditionalOnBean(TenantConfigSnapshotProvider.class) @ConditionalOnMissingBean
+    DbConfigTenantRefresher dbConfigTenantRefresher(TenantConfigSnapshotProvider provider, DbConfigTenantSource tenantSource, DbConfigRefreshProperties properties, ConfigurableEnvironment environment) {
+        return new DbConfigTenantRefresher(provider, tenantSource, properties, environment);
+    }
+
     @Configuration(proxyBeanMethods = false)
     @ConditionalOnClass(MeterRegistry.class)
     @ConditionalOnProperty(prefix = "dbconfig.refresh.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
@@ -0,0 +1,156 @@
+package com.example.dbconfig.refresh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.PackedPropertyMap;
+import com.example.dbconfig.core.PersistentPropertyMap;
+
+final class DbConfigPropertyIndex {
+
+    static final DbConfigPropertyIndex EMPTY = new DbConfigPropertyIndex(PersistentPropertyMap.empty(), null, new String[0], new String[0], 0);
+
+    private final Map<String, Object> properties;
+    private final DbConfigSnapshotHandle handle;
+    private final long keySetGeneration;
+    private volatile String[] names;
+    private volatile String[] publishedNames;
+
+    private DbConfigPropertyIndex(Map<String, Object> properties, ConfigVersion version, String[] names, String[] publishedNames, long keySetGeneration) {
+        this.properties = properties;
+        this.handle = new DbConfigSnapshotHandle(this, properties, version);
+        this.names = names;
+        this.publishedNames = publishedNames;
+        this.keySetGeneration = keySetGeneration;
+    }
+
+    DbConfigPropertyIndex reload(Map<String, ?> replacement, ConfigVersion version, int packedThreshold) {
+        boolean packed = packedThreshold > 0 && replacement.size() >= packedThreshold;
+        if (packed || properties instanceof PackedPropertyMap) {
+            Map<String, Object> encoded = packed ? PackedPropertyMap.copyOf(replacement) : PersistentPropertyMap.copyOf(replacement);
+            boolean sameKeys = encoded instanceof PackedPropertyMap packedEncoded && properties instanceof PackedPropertyMap packedCurrent
+                    ? packedEncoded.hasSameKeys(packedCurrent)
+                    : encoded.size() == properties.size() && properties.keySet().stream().allMatch(encoded::containsKey);
+            return sameKeys ? new DbConfigPropertyIndex(encoded, version, names, publishedNames, keySetGeneration)
+                    : new DbConfigPropertyIndex(encoded, version, null, null, keySetGeneration + 1);
+        }
+        List<String> removals = new ArrayList<>();
+        for (String key : properties.keySet()) {
+            if (!replacement.containsKey(key)) {
+                removals.add(key);
+            }
+        }
+        return apply(replacement, removals, version);
+    }
+
+    DbConfigPropertyIndex apply(Map<String, ?> upserts, Collection<String> removals, ConfigVersion version) {
+        Map<String, Object> updated = properties instanceof PackedPropertyMap packed
+                ? packed.withChanges(upserts, removals) : ((PersistentPropertyMap) properties).withChanges(upserts, removals);
+        if (updated == properties) {
+            return Objects.equals(version, handle.getVersion()) ? this : new DbConfigPropertyIndex(updated, version, names, publishedNames, keySetGeneration);
+        }
+        boolean sameKeys = updated.size() == properties.size();
+        for (String key : removals) {
+            sameKeys &= !properties.containsKey(key);
+        }
+        if (sameKeys) {
+            for (Map.Entry<String, ?> entry : upserts.entrySet()) {
+                if (entry.getValue() == null || !properties.containsKey(entry.getKey())) {
+                    sameKeys = false;
+                    break;
+                }
+            }
+        }
+        // Keep the previous names array when the key set is unchanged so binder name mappings stay valid.
+        return sameKeys ? new DbConfigPropertyIndex(updated, version, names, publishedNames, keySetGeneration)
+                : new DbConfigPropertyIndex(updated, version, null, null, keySetGeneration + 1);
+    }
+
+    Object get(String name) {
+        return properties.get(name);
+    }
+
+    boolean contains(String name) {
+        return properties.containsKey(name);
+    }
+
+    /**
+     * Sorted names handed to callers. This is a copy of the array the prefix lookups search, so a caller
+     * writing into it cannot break them; the same copy is returned for an unchanged key set.
+     */
+    String[] publishedNames() {
+        String[] result = publishedNames;
+        if (result == null) {
+            result = properties instanceof PackedPropertyMap ? names() : names().clone();
+            publishedNames = result;
+        }
+        return result;
+    }
+
+    private String[] names() {
+        String[] result = names;
+        if (result == null) {
+            if (properties instanceof PackedPropertyMap packed) {
+                result = packed.keys();
+            }
+            else {
+                result = properties.keySet().toArray(String[]::new);
+                Arrays.sort(result);
+            }
+            names = result;
+        }
+        return result;
+    }
+
+    String[] namesWithPrefix(String prefix) {
+        if (properties instanceof PackedPropertyMap packed) {
+            return packed.keysWithPrefix(prefix);
+        }
+        String[] sorted = names();
+        int from = lowerBound(sorted, prefix);
+        int to = from;
+        while (to < sorted.length && sorted[to].startsWith(prefix)) {
+            to++;
+        }
+        return from == 0 && to == sorted.length ? sorted.clone() : Arrays.copyOfRange(sorted, from, to);
+    }
+
+    boolean hasDescendants(String name) {
+        return hasPrefix(name + ".") || hasPrefix(name + "[");
+    }
+
+    private boolean hasPrefix(String prefix) {
+        if (properties instanceof PackedPropertyMap packed) {
+            return packed.hasKeyWithPrefix(prefix);
+        }
+        String[] sorted = names();
+        int index = lowerBound(sorted, prefix);
+        return index < sorted.length && sorted[index].startsWith(prefix);
+    }
+
+    Map<String, Object> properties() {
+        return properties;
+    }
+
+    DbConfigSnapshotHandle handle() {
+        return handle;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    long keySetGeneration() {
+        return keySetGeneration;
+    }
+
+    int size() {
+        return properties.size();
+    }
+}
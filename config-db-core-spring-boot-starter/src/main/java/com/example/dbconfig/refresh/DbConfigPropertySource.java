@@ -1,34 +1,154 @@
 package com.example.dbconfig.refresh;
 
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.LazyPropertyValue;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.EnumerablePropertySource;
 
 public class DbConfigPropertySource extends EnumerablePropertySource<Object> {
 
-    private final AtomicReference<Map<String, Object>> snapshot = new AtomicReference<>(Collections.emptyMap());
+    private final AtomicReference<DbConfigPropertyIndex> snapshot = new AtomicReference<>(DbConfigPropertyIndex.EMPTY);
+
+    private final ThreadLocal<DbConfigSnapshotHandle> pinnedHandle = new ThreadLocal<>();
+
+    private final Map<String, Conversions> conversions = new ConcurrentHashMap<>();
+
+    private volatile int packedThreshold;
+
+    private volatile ConversionService conversionService = ApplicationConversionService.getSharedInstance();
 
     public DbConfigPropertySource(String name) {
         super(name, new Object());
     }
 
+    public void setPackedThreshold(int packedThreshold) {
+        this.packedThreshold = packedThreshold;
+    }
+
+    public void setConversionService(ConversionService conversionService) {
+        this.conversionService = conversionService;
+    }
+
     public void reload(Map<String, Object> properties) {
-        snapshot.set(Map.copyOf(properties));
+        reload(properties, null);
+    }
+
+    public void reload(Map<String, Object> properties, ConfigVersion version) {
+        DbConfigPropertyIndex updated = snapshot.get().reload(properties, version, packedThreshold);
+        snapshot.set(updated);
+        conversions.keySet().removeIf(key -> !updated.contains(key));
+    }
+
+    public void apply(Map<String, Object> upserts, Collection<String> removals) {
+        apply(upserts, removals, null);
+    }
+
+    public void apply(Map<String, Object> upserts, Collection<String> removals, ConfigVersion version) {
+        snapshot.set(snapshot.get().apply(upserts, removals, version));
+        removals.forEach(conversions::remove);
+    }
+
+    public DbConfigSnapshotHandle snapshot() {
+        DbConfigSnapshotHandle pinned = pinnedHandle.get();
+        return pinned != null ? pinned : snapshot.get().handle();
+    }
+
+    public Pin pin() {
+        DbConfigSnapshotHandle previous = pinnedHandle.get();
+        pinnedHandle.set(snapshot());
+        return () -> {
+            if (previous == null) {
+                pinnedHandle.remove();
+            }
+            else {
+                pinnedHandle.set(previous);
+            }
+        };
+    }
+
+    public <T> T withPinnedSnapshot(Supplier<T> action) {
+        Pin pin = pin();
+        try {
+            return action.get();
+        }
+        finally {
+            pin.close();
+        }
+    }
+
+    public Map<String, Object> asMap() {
+        return snapshot.get().properties();
     }
 
     @Override
     public Object getProperty(String name) {
-        return snapshot.get().get(name);
+        DbConfigSnapshotHandle pinned = pinnedHandle.get();
+        return pinned != null ? pinned.getProperty(name) : LazyPropertyValue.resolve(snapshot.get().get(name));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getProperty(String name, Class<T> targetType) {
+        DbConfigSnapshotHandle pinned = pinnedHandle.get();
+        Object raw = pinned != null ? pinned.asMap().get(name) : snapshot.get().get(name);
+        Object value = LazyPropertyValue.resolve(raw);
+        if (value == null || targetType.isInstance(value)) {
+            return (T) value;
+        }
+        Conversions cached = conversions.get(name);
+        if (cached == null || (cached.raw() != raw && !cached.raw().equals(raw))) {
+            cached = new Conversions(raw, new ConcurrentHashMap<>(4));
+            conversions.put(name, cached);
+        }
+        Object converted = cached.values().get(targetType);
+        if (converted == null) {
+            converted = conversionService.convert(value, targetType);
+            if (converted != null) {
+                cached.values().put(targetType, converted);
+            }
+        }
+        return (T) converted;
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        DbConfigSnapshotHandle pinned = pinnedHandle.get();
+        return pinned != null ? pinned.containsProperty(name) : snapshot.get().contains(name);
     }
 
     @Override
     public String[] getPropertyNames() {
-        return snapshot.get().keySet().toArray(String[]::new);
+        return snapshot().getPropertyNames();
+    }
+
+    public String[] getPropertyNamesWithPrefix(String prefix) {
+        return snapshot().getPropertyNamesWithPrefix(prefix);
+    }
+
+    public boolean hasDescendants(String name) {
+        return snapshot().hasDescendants(name);
     }
 
     public int size() {
         return snapshot.get().size();
     }
+
+    long keySetGeneration() {
+        return snapshot.get().keySetGeneration();
+    }
+
+    public interface Pin extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private record Conversions(Object raw, Map<Class<?>, Object> values) {
+    }
 }
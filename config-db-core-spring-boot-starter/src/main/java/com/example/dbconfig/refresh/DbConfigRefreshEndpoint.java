@@ -26,7 +26,7 @@ public class DbConfigRefreshEndpoint {
     @ReadOperation
     public Map<String, Object> status() {
         Map<String, Object> body = baseMetadata();
-        body.put("currentDbVersion", state.getLastDbVersionSeen());
+        body.put("currentDbVersion", state.getLastDbVersionValue());
         body.put("refreshTriggeredCount", state.getRefreshTriggeredCount());
         return body;
     }
@@ -37,7 +37,7 @@ public class DbConfigRefreshEndpoint {
         Map<String, Object> body = baseMetadata();
         body.put("refreshed", result.refreshed());
         body.put("changedKeysCount", result.changedKeysCount());
-        body.put("newVersion", result.version());
+        body.put("newVersion", result.version() == null ? null : result.version().value());
         body.put("durationMs", result.durationMs());
         body.put("trigger", result.trigger());
         body.put("message", result.message());
@@ -25,7 +25,7 @@ public class DbConfigRefreshHealthIndicator implements HealthIndicator {
         Health.Builder builder = Health.status(status)
                 .withDetail("lastSuccess", state.getLastSuccessRefresh())
                 .withDetail("lastAttempt", state.getLastAttemptRefresh())
-                .withDetail("dbVersion", state.getLastDbVersionSeen())
+                .withDetail("dbVersion", state.getLastDbVersionValue())
                 .withDetail("consecutiveFailures", state.getConsecutiveFailures())
                 .withDetail("failMode", properties.isFailSoft() ? "SOFT" : "FAST");
 
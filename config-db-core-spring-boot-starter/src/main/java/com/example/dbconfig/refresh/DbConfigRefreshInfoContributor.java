@@ -19,7 +19,7 @@ public class DbConfigRefreshInfoContributor implements InfoContributor {
     @Override
     public void contribute(Info.Builder builder) {
         Map<String, Object> details = new LinkedHashMap<>();
-        details.put("version", state.getLastDbVersionSeen());
+        details.put("version", state.getLastDbVersionValue());
         details.put("lastSuccess", state.getLastSuccessRefresh());
         details.put("lastAttempt", state.getLastAttemptRefresh());
         details.put("keysCount", state.getLastSnapshotSize());
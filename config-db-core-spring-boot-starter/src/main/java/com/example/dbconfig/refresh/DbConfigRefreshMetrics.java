@@ -17,4 +17,8 @@ public interface DbConfigRefreshMetrics {
     void recordDbLoadAllTime(Duration duration);
 
     void recordContextRefreshTime(Duration duration);
+
+    // Default keeps implementations written before pool metrics existed source-compatible.
+    default void bindConnectionPool(DbConfigConnectionPool pool) {
+    }
 }
@@ -19,6 +19,8 @@ public class DbConfigRefreshProperties {
 
     private String propertySourceName = "dbConfig";
 
+    private int packedSnapshotThreshold = 0;
+
     private final Precedence precedence = new Precedence();
 
     private final Refresh refresh = new Refresh();
@@ -81,6 +83,14 @@ public class DbConfigRefreshProperties {
         this.propertySourceName = propertySourceName;
     }
 
+    public int getPackedSnapshotThreshold() {
+        return packedSnapshotThreshold;
+    }
+
+    public void setPackedSnapshotThreshold(int packedSnapshotThreshold) {
+        this.packedSnapshotThreshold = packedSnapshotThreshold;
+    }
+
     public Precedence getPrecedence() {
         return precedence;
     }
@@ -150,6 +160,12 @@ public class DbConfigRefreshProperties {
 
         private Duration coalesceWindow = Duration.ofSeconds(1);
 
+        private Duration fullReconcileInterval = Duration.ofMinutes(10);
+
+        private Duration deadline = Duration.ofSeconds(30);
+
+        private boolean cacheBindings = true;
+
         public Duration getMinInterval() {
             return minInterval;
         }
@@ -173,6 +189,30 @@ public class DbConfigRefreshProperties {
         public void setCoalesceWindow(Duration coalesceWindow) {
             this.coalesceWindow = coalesceWindow;
         }
+
+        public Duration getFullReconcileInterval() {
+            return fullReconcileInterval;
+        }
+
+        public void setFullReconcileInterval(Duration fullReconcileInterval) {
+            this.fullReconcileInterval = fullReconcileInterval;
+        }
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        public boolean isCacheBindings() {
+            return cacheBindings;
+        }
+
+        public void setCacheBindings(boolean cacheBindings) {
+            this.cacheBindings = cacheBindings;
+        }
     }
 
     public static class Retry {
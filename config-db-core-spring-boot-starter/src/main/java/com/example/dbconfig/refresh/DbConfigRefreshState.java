@@ -6,12 +6,15 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.example.dbconfig.core.ConfigVersion;
+
 public class DbConfigRefreshState {
 
     private final AtomicLong refreshTriggeredCount = new AtomicLong();
     private final AtomicInteger consecutiveFailures = new AtomicInteger();
     private final AtomicInteger degraded = new AtomicInteger();
     private final AtomicReference<Instant> lastDbVersionSeen = new AtomicReference<>(Instant.EPOCH);
+    private final AtomicReference<ConfigVersion> lastConfigVersion = new AtomicReference<>();
     private final AtomicReference<Instant> lastSuccessRefresh = new AtomicReference<>(Instant.EPOCH);
     private final AtomicReference<Instant> lastAttemptRefresh = new AtomicReference<>(Instant.EPOCH);
     private final AtomicReference<String> lastErrorSummary = new AtomicReference<>();
@@ -20,6 +23,7 @@ public class DbConfigRefreshState {
     private final AtomicInteger initialLoadFailed = new AtomicInteger();
     private final AtomicInteger listenConnected = new AtomicInteger();
     private final AtomicReference<Instant> lastNotifyAt = new AtomicReference<>(Instant.EPOCH);
+    private final AtomicReference<ConfigVersion> lastNotifiedVersion = new AtomicReference<>();
     private final AtomicInteger notifyEnabled = new AtomicInteger();
     private final AtomicReference<String> notifyChannel = new AtomicReference<>();
 
@@ -36,12 +40,15 @@ public class DbConfigRefreshState {
         lastActiveProfiles.set(List.copyOf(activeProfiles));
     }
 
-    public void onSuccess(Instant now, Instant dbVersion, int snapshotSize) {
+    public void onSuccess(Instant now, ConfigVersion dbVersion, int snapshotSize) {
         consecutiveFailures.set(0);
         degraded.set(0);
         initialLoadFailed.set(0);
         lastSuccessRefresh.set(now);
-        lastDbVersionSeen.set(dbVersion);
+        lastConfigVersion.set(dbVersion);
+        if (dbVersion != null && dbVersion.instantValue() != null) {
+            lastDbVersionSeen.set(dbVersion.instantValue());
+        }
         lastSnapshotSize.set(snapshotSize);
         lastErrorSummary.set(null);
     }
@@ -70,6 +77,15 @@ public class DbConfigRefreshState {
         return lastDbVersionSeen.get();
     }
 
+    public ConfigVersion getLastConfigVersion() {
+        return lastConfigVersion.get();
+    }
+
+    public String getLastDbVersionValue() {
+        ConfigVersion version = lastConfigVersion.get();
+        return version == null ? null : version.value();
+    }
+
     public Instant getLastSuccessRefresh() {
         return lastSuccessRefresh.get();
     }
@@ -120,6 +136,16 @@ public class DbConfigRefreshState {
         }
     }
 
+    public ConfigVersion getLastNotifiedVersion() {
+        return lastNotifiedVersion.get();
+    }
+
+    public void setLastNotifiedVersion(ConfigVersion version) {
+        if (version != null) {
+            lastNotifiedVersion.accumulateAndGet(version, (current, next) -> !next.isComparableTo(current) || next.isNewerThan(current) ? next : current);
+        }
+    }
+
     public boolean isNotifyEnabled() {
         return notifyEnabled.get() == 1;
     }
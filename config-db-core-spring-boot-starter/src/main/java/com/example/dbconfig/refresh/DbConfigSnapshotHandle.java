@@ -0,0 +1,69 @@
+package com.example.dbconfig.refresh;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.LazyPropertyValue;
+
+public final class DbConfigSnapshotHandle {
+
+    private final DbConfigPropertyIndex index;
+    private final Map<String, Object> properties;
+    private final ConfigVersion version;
+
+    DbConfigSnapshotHandle(DbConfigPropertyIndex index, Map<String, Object> properties, ConfigVersion version) {
+        this.index = index;
+        this.properties = properties;
+        this.version = version;
+    }
+
+    public ConfigVersion getVersion() {
+        return version;
+    }
+
+    public Object getProperty(String name) {
+        return LazyPropertyValue.resolve(properties.get(name));
+    }
+
+    public boolean containsProperty(String name) {
+        return properties.containsKey(name);
+    }
+
+    public String[] getPropertyNames() {
+        return index.publishedNames();
+    }
+
+    public String[] getPropertyNamesWithPrefix(String prefix) {
+        return index.namesWithPrefix(prefix);
+    }
+
+    public boolean hasDescendants(String name) {
+        return index.hasDescendants(name);
+    }
+
+    public Map<String, Object> getProperties(String... names) {
+        return getProperties(List.of(names));
+    }
+
+    public Map<String, Object> getProperties(Collection<String> names) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : names) {
+            Object value = getProperty(name);
+            if (value != null) {
+                result.put(name, value);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> asMap() {
+        return properties;
+    }
+
+    public int size() {
+        return properties.size();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.dbconfig.refresh;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.RefreshDeadline;
+import com.example.dbconfig.core.RetryExecutor;
+import com.example.dbconfig.core.TenantConfigSnapshotProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+public class DbConfigTenantRefresher implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(DbConfigTenantRefresher.class);
+    private final TenantConfigSnapshotProvider provider;
+    private final DbConfigTenantSource tenantSource;
+    private final DbConfigRefreshProperties properties;
+    private final ConfigurableEnvironment environment;
+    private final ScheduledExecutorService executorService;
+    private Map<String, ConfigVersion> appliedVersions = Map.of();
+    private List<String> appliedProfiles;
+    private volatile boolean running;
+
+    public DbConfigTenantRefresher(TenantConfigSnapshotProvider provider, DbConfigTenantSource tenantSource,
+            DbConfigRefreshProperties properties, ConfigurableEnvironment environment) {
+        this.provider = provider;
+        this.tenantSource = tenantSource;
+        this.properties = properties;
+        this.environment = environment;
+        this.executorService = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dbconfig-tenant-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public synchronized int refresh() {
+        List<String> profiles = resolveProfiles();
+        ActiveProfiles activeProfiles = new ActiveProfiles(profiles);
+        RefreshDeadline deadline = RefreshDeadline.after(properties.getRefresh().getDeadline());
+        RefreshDeadline.Handle scope = deadline.activate();
+        try {
+            Map<String, ConfigVersion> versions = withRetry("fetchTenantVersions", () -> provider.fetchTenantVersions(activeProfiles), deadline);
+            if (!profiles.equals(appliedProfiles)) {
+                tenantSource.replace(withRetry("fetchAllTenantOverrides", () -> provider.fetchAllTenantOverrides(activeProfiles), deadline));
+                appliedVersions = versions;
+                appliedProfiles = profiles;
+                return versions.size();
+            }
+            Set<String> changed = new HashSet<>();
+            versions.forEach((tenant, version) -> {
+                ConfigVersion applied = appliedVersions.get(tenant);
+                if (applied == null || version.differsFrom(applied)) {
+                    changed.add(tenant);
+                }
+            });
+            Set<String> removed = new HashSet<>(appliedVersions.keySet());
+            removed.removeAll(versions.keySet());
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return 0;
+            }
+            Map<String, Map<String, Object>> fetched = changed.isEmpty() ? Map.of()
+                    : withRetry("fetchTenantOverrides", () -> provider.fetchTenantOverrides(activeProfiles, changed), deadline);
+            // Untouched tenants keep their existing override maps; only the outer index is rebuilt.
+            Map<String, Map<String, Object>> next = new HashMap<>(tenantSource.snapshot());
+            next.keySet().removeAll(removed);
+            next.keySet().removeAll(changed);
+            next.putAll(fetched);
+            tenantSource.replace(next);
+            appliedVersions = versions;
+            return changed.size() + removed.size();
+        }
+        finally {
+            scope.close();
+        }
+    }
+
+    private <T> T withRetry(String operationName, Supplier<T> supplier, RefreshDeadline deadline) {
+        DbConfigRefreshProperties.Retry retry = properties.getRetry();
+        RetryExecutor.RetryPolicy policy = new RetryExecutor.RetryPolicy(Math.max(1, retry.getMaxAttempts()), retry.getInitialBackoff(), retry.getMaxBackoff(), retry.getJitter());
+        return RetryExecutor.execute(supplier, policy, log, operationName, deadline);
+    }
+
+    private List<String> resolveProfiles() {
+        String[] activeProfiles = environment.getActiveProfiles();
+        if (activeProfiles.length > 0) {
+            return Arrays.asList(activeProfiles);
+        }
+        return Arrays.asList(environment.getDefaultProfiles());
+    }
+
+    private void safeRefresh() {
+        try {
+            int changed = refresh();
+            if (changed > 0) {
+                log.debug("Refreshed {} tenant override sets", changed);
+            }
+        } catch (Exception ex) {
+            log.warn("Tenant config refresh failed", ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) return;
+        running = true;
+        safeRefresh();
+        long intervalMs = Math.max(100L, properties.getPollInterval().toMillis());
+        executorService.scheduleWithFixedDelay(this::safeRefresh, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executorService.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() { return running; }
+    @Override
+    public boolean isAutoStartup() { return true; }
+    @Override
+    public int getPhase() { return Integer.MAX_VALUE; }
+    @Override
+    public void stop(Runnable callback) { stop(); callback.run(); }
+}
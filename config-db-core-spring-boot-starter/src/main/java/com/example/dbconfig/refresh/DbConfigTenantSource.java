@@ -0,0 +1,46 @@
+package com.example.dbconfig.refresh;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DbConfigTenantSource {
+
+    private final DbConfigPropertySource baseSource;
+    private final AtomicReference<Map<String, Map<String, Object>>> overrides = new AtomicReference<>(Map.of());
+
+    public DbConfigTenantSource(DbConfigPropertySource baseSource) {
+        this.baseSource = baseSource;
+    }
+
+    public Object getProperty(String tenantId, String key) {
+        Map<String, Object> tenantOverrides = overrides.get().get(tenantId);
+        if (tenantOverrides != null) {
+            Object value = tenantOverrides.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return baseSource.getProperty(key);
+    }
+
+    public Map<String, Object> getOverrides(String tenantId) {
+        return overrides.get().getOrDefault(tenantId, Map.of());
+    }
+
+    public Set<String> getTenantIds() {
+        return overrides.get().keySet();
+    }
+
+    public int size() {
+        return overrides.get().size();
+    }
+
+    void replace(Map<String, Map<String, Object>> tenantOverrides) {
+        overrides.set(Map.copyOf(tenantOverrides));
+    }
+
+    Map<String, Map<String, Object>> snapshot() {
+        return overrides.get();
+    }
+}
@@ -10,6 +10,8 @@ import io.micrometer.core.instrument.Timer;
 
 public class MicrometerDbConfigRefreshMetrics implements DbConfigRefreshMetrics {
 
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
     private final Counter pollTicks;
     private final Counter changesDetected;
     private final Counter refreshTriggered;
@@ -28,6 +30,8 @@ public class MicrometerDbConfigRefreshMetrics implements DbConfigRefreshMetrics
         if (profileTagEnabled) {
             tags = tags.and("activeProfiles", activeProfilesTag);
         }
+        this.meterRegistry = meterRegistry;
+        this.tags = tags;
 
         this.pollTicks = meterRegistry.counter("dbconfig.refresh.poll.ticks", tags);
         this.changesDetected = meterRegistry.counter("dbconfig.refresh.changes.detected", tags);
@@ -83,4 +87,21 @@ public class MicrometerDbConfigRefreshMetrics implements DbConfigRefreshMetrics
     public void recordContextRefreshTime(Duration duration) {
         contextRefreshTimer.record(duration);
     }
+
+    @Override
+    public void bindConnectionPool(DbConfigConnectionPool pool) {
+        Tags poolTags = tags.and("pool", pool.getPoolName());
+        Gauge.builder("dbconfig.refresh.pool.active", pool, DbConfigConnectionPool::getActiveConnections)
+                .tags(poolTags)
+                .register(meterRegistry);
+        Gauge.builder("dbconfig.refresh.pool.idle", pool, DbConfigConnectionPool::getIdleConnections)
+                .tags(poolTags)
+                .register(meterRegistry);
+        Gauge.builder("dbconfig.refresh.pool.pending", pool, DbConfigConnectionPool::getPendingThreads)
+                .tags(poolTags)
+                .register(meterRegistry);
+        Gauge.builder("dbconfig.refresh.pool.max", pool, DbConfigConnectionPool::getMaxConnections)
+                .tags(poolTags)
+                .register(meterRegistry);
+    }
 }
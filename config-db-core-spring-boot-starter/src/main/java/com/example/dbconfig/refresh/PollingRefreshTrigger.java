@@ -7,8 +7,10 @@ import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.ConfigVersionVector;
 import com.example.dbconfig.core.RefreshTrigger;
 import com.example.dbconfig.core.TriggerReason;
 import org.slf4j.Logger;
@@ -22,8 +24,10 @@ public class PollingRefreshTrigger implements RefreshTrigger, SmartLifecycle {
     private final Clock clock;
     private final ScheduledExecutorService executorService;
     private volatile Instant lastRefreshAt = Instant.EPOCH;
-    private volatile Instant lastSeenVersion = Instant.EPOCH;
+    private volatile ConfigVersion lastSeenVersion;
+    private volatile ConfigVersionVector lastSeenVersionVector;
     private volatile boolean running;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
 
     public PollingRefreshTrigger(ConfigRefreshOrchestrator orchestrator, DbConfigRefreshProperties properties) {
         this(orchestrator, properties, Clock.systemUTC(), Executors.newSingleThreadScheduledExecutor(r -> {
@@ -44,26 +48,62 @@ public class PollingRefreshTrigger implements RefreshTrigger, SmartLifecycle {
     public void start() {
         if (running) return;
         running = true;
-        orchestrator.loadInitialSnapshot();
+        RefreshResult initial = orchestrator.loadInitialSnapshot();
+        if (initial.refreshed()) {
+            lastSeenVersion = initial.version();
+            lastSeenVersionVector = orchestrator.getAppliedVersionVector();
+        }
         long intervalMs = Math.max(100L, properties.getPollInterval().toMillis());
         executorService.scheduleWithFixedDelay(this::safePoll, Math.max(0L, properties.getInitialDelay().toMillis()), intervalMs, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Queues one refresh on the poller thread without waiting for the next change check. Requests made
+     * while one is already queued are folded into it.
+     */
+    public void requestRefreshSoon() {
+        if (running && refreshPending.compareAndSet(false, true)) {
+            executorService.execute(() -> {
+                refreshPending.set(false);
+                try {
+                    RefreshResult result = orchestrator.requestRefresh(TriggerReason.EVENT);
+                    lastRefreshAt = clock.instant();
+                    if (result.refreshed()) {
+                        lastSeenVersion = result.version();
+                        lastSeenVersionVector = orchestrator.getAppliedVersionVector();
+                    }
+                } catch (Exception ex) {
+                    log.warn("Requested refresh failed", ex);
+                }
+            });
+        }
+    }
+
     private void safePoll() {
         try {
-            Optional<ConfigVersion> current = orchestrator.fetchVersion();
             Instant now = clock.instant();
-            if (current.map(ConfigVersion::instantValue).orElse(Instant.EPOCH).isAfter(lastSeenVersion)
-                    && Duration.between(lastRefreshAt, now).compareTo(properties.getRefresh().getMinInterval()) >= 0) {
-                orchestrator.requestRefresh(TriggerReason.POLL);
+            if (hasChanges() && Duration.between(lastRefreshAt, now).compareTo(properties.getRefresh().getMinInterval()) >= 0) {
+                RefreshResult result = orchestrator.requestRefresh(TriggerReason.POLL);
                 lastRefreshAt = now;
-                lastSeenVersion = current.map(ConfigVersion::instantValue).orElse(Instant.EPOCH);
+                if (result.refreshed()) {
+                    lastSeenVersion = result.version();
+                    lastSeenVersionVector = orchestrator.getAppliedVersionVector();
+                }
             }
         } catch (Exception ex) {
             log.warn("Polling failed", ex);
         }
     }
 
+    private boolean hasChanges() {
+        Optional<ConfigVersionVector> vector = orchestrator.fetchVersionVector();
+        if (vector.isPresent()) {
+            return !vector.get().equals(lastSeenVersionVector);
+        }
+        Optional<ConfigVersion> current = orchestrator.fetchVersion();
+        return current.isPresent() && current.get().differsFrom(lastSeenVersion);
+    }
+
     @Override
     public void stop() {
         running = false;
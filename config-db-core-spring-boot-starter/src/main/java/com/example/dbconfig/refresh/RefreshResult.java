@@ -1,11 +1,11 @@
 package com.example.dbconfig.refresh;
 
-import java.time.Instant;
+import com.example.dbconfig.core.ConfigVersion;
 
 public record RefreshResult(
         boolean refreshed,
         int changedKeysCount,
-        Instant version,
+        ConfigVersion version,
         long durationMs,
         String trigger,
         String message) {
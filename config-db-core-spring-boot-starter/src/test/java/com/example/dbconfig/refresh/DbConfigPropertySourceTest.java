@@ -0,0 +1,117 @@
+package com.example.dbconfig.refresh;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.LazyPropertyValue;
+import org.junit.jupiter.api.Test;
+
+class DbConfigPropertySourceTest {
+
+    @Test
+    void pinnedSnapshotIgnoresLaterRefreshes() {
+        DbConfigPropertySource source = new DbConfigPropertySource("db");
+        source.reload(Map.of("demo.threshold", "5", "demo.mode", "a"), ConfigVersion.ofSequence(1));
+
+        try (DbConfigPropertySource.Pin pin = source.pin()) {
+            source.apply(Map.of("demo.threshold", "9", "demo.mode", "b"), List.of(), ConfigVersion.ofSequence(2));
+            assertThat(source.getProperty("demo.threshold")).isEqualTo("5");
+            assertThat(source.snapshot().getProperties("demo.threshold", "demo.mode")).containsEntry("demo.mode", "a");
+            assertThat(source.snapshot().getVersion()).isEqualTo(ConfigVersion.ofSequence(1));
+        }
+        assertThat(source.getProperty("demo.threshold")).isEqualTo("9");
+        assertThat(source.snapshot().getVersion()).isEqualTo(ConfigVersion.ofSequence(2));
+    }
+
+    @Test
+    void pinningOneSourceDoesNotAffectAnother() {
+        DbConfigPropertySource pinnedSource = new DbConfigPropertySource("pinned");
+        DbConfigPropertySource otherSource = new DbConfigPropertySource("other");
+        pinnedSource.reload(Map.of("demo.mode", "pinned"), ConfigVersion.ofSequence(1));
+        otherSource.reload(Map.of("demo.mode", "other-1"), ConfigVersion.ofSequence(1));
+
+        try (DbConfigPropertySource.Pin pin = pinnedSource.pin()) {
+            otherSource.apply(Map.of("demo.mode", "other-2"), List.of(), ConfigVersion.ofSequence(2));
+            assertThat(otherSource.getProperty("demo.mode")).isEqualTo("other-2");
+            assertThat(otherSource.snapshot().getVersion()).isEqualTo(ConfigVersion.ofSequence(2));
+            assertThat(pinnedSource.getProperty("demo.mode")).isEqualTo("pinned");
+        }
+    }
+
+    @Test
+    void pinnedSnapshotServesNamesAndPrefixQueries() {
+        DbConfigPropertySource source = new DbConfigPropertySource("db");
+        source.reload(Map.of("demo.a", "1", "demo.b", "2"), ConfigVersion.ofSequence(1));
+
+        try (DbConfigPropertySource.Pin pin = source.pin()) {
+            source.reload(Map.of("demo.a", "1", "other.c", "3"), ConfigVersion.ofSequence(2));
+            assertThat(source.getPropertyNames()).containsExactly("demo.a", "demo.b");
+            assertThat(source.getPropertyNamesWithPrefix("demo.")).containsExactly("demo.a", "demo.b");
+            assertThat(source.hasDescendants("other")).isFalse();
+        }
+        assertThat(source.getPropertyNames()).containsExactly("demo.a", "other.c");
+        assertThat(source.getPropertyNamesWithPrefix("demo.")).containsExactly("demo.a");
+        assertThat(source.hasDescendants("other")).isTrue();
+    }
+
+    @Test
+    void nestedPinsRestoreTheOuterHandle() {
+        DbConfigPropertySource source = new DbConfigPropertySource("db");
+        source.reload(Map.of("demo.mode", "a"), ConfigVersion.ofSequence(1));
+
+        try (DbConfigPropertySource.Pin outer = source.pin()) {
+            source.apply(Map.of("demo.mode", "b"), List.of(), ConfigVersion.ofSequence(2));
+            source.withPinnedSnapshot(() -> assertThat(source.getProperty("demo.mode")).isEqualTo("a"));
+            assertThat(source.getProperty("demo.mode")).isEqualTo("a");
+        }
+        assertThat(source.getProperty("demo.mode")).isEqualTo("b");
+    }
+
+    @Test
+    void callerWritesToNamesDoNotBreakPrefixLookups() {
+        DbConfigPropertySource source = new DbConfigPropertySource("db");
+        source.reload(Map.of("demo.a", "1", "demo.b", "2", "other.c", "3"), ConfigVersion.ofSequence(1));
+
+        String[] names = source.getPropertyNames();
+        assertThat(names).containsExactly("demo.a", "demo.b", "other.c");
+        names[0] = "zzz";
+        names[2] = "aaa";
+
+        assertThat(source.getPropertyNamesWithPrefix("demo.")).containsExactly("demo.a", "demo.b");
+        assertThat(source.hasDescendants("other")).isTrue();
+    }
+
+    @Test
+    void namesArrayIsReusedWhileKeySetIsUnchanged() {
+        DbConfigPropertySource source = new DbConfigPropertySource("db");
+        source.reload(Map.of("demo.a", "1", "demo.b", "2"), ConfigVersion.ofSequence(1));
+        String[] names = source.getPropertyNames();
+
+        source.apply(Map.of("demo.a", "9"), List.of(), ConfigVersion.ofSequence(2));
+        assertThat(source.getPropertyNames()).isSameAs(names);
+
+        source.apply(Map.of("demo.c", "3"), List.of(), ConfigVersion.ofSequence(3));
+        assertThat(source.getPropertyNames()).containsExactly("demo.a", "demo.b", "demo.c");
+    }
+
+    @Test
+    void containsPropertyDoesNotLoadDeferredValues() {
+        AtomicInteger loads = new AtomicInteger();
+        LazyPropertyValue big = new LazyPropertyValue("demo.big", 5, "h1", key -> {
+            loads.incrementAndGet();
+            return new LazyPropertyValue.Fetched("value", "h1");
+        }, lazy -> { });
+        DbConfigPropertySource source = new DbConfigPropertySource("db");
+        source.reload(Map.of("demo.big", big), ConfigVersion.ofSequence(1));
+
+        assertThat(source.containsProperty("demo.big")).isTrue();
+        assertThat(source.containsProperty("demo.missing")).isFalse();
+        assertThat(loads.get()).isZero();
+        assertThat(source.getProperty("demo.big")).isEqualTo("value");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.dbconfig.core;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+public record ConfigDelta(Map<String, Object> upserts, Set<String> removals, ConfigVersion version, Instant fetchedAt) {
+
+    public ConfigDelta {
+        upserts = upserts == null ? Map.of() : Map.copyOf(upserts);
+        removals = removals == null ? Set.of() : Set.copyOf(removals);
+    }
+
+    public static ConfigDelta unchanged(ConfigVersion version, Instant fetchedAt) {
+        return new ConfigDelta(Map.of(), Set.of(), version, fetchedAt);
+    }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && removals.isEmpty();
+    }
+
+    public int changedKeysCount() {
+        return upserts.size() + removals.size();
+    }
+}
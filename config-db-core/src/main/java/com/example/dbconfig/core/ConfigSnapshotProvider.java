@@ -6,5 +6,17 @@ public interface ConfigSnapshotProvider {
 
     Optional<ConfigVersion> fetchVersion();
 
+    default Optional<ConfigVersion> fetchVersion(ActiveProfiles profiles) {
+        return fetchVersion();
+    }
+
+    default Optional<ConfigVersionVector> fetchVersionVector(ActiveProfiles profiles) {
+        return Optional.empty();
+    }
+
     ConfigSnapshot fetchSnapshot(ActiveProfiles profiles);
+
+    default Optional<ConfigDelta> fetchDelta(ActiveProfiles profiles, ConfigVersion since) {
+        return Optional.empty();
+    }
 }
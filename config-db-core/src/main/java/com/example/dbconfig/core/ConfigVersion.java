@@ -3,24 +3,70 @@ package com.example.dbconfig.core;
 import java.time.Instant;
 import java.util.Objects;
 
-public record ConfigVersion(String value, Instant instantValue) implements Comparable<ConfigVersion> {
+public record ConfigVersion(String value, Instant instantValue, Long sequenceValue, boolean fingerprint) implements Comparable<ConfigVersion> {
 
     public static ConfigVersion ofInstant(Instant instant) {
         return new ConfigVersion(instant == null ? Instant.EPOCH.toString() : instant.toString(), instant == null ? Instant.EPOCH : instant);
     }
 
+    public static ConfigVersion ofSequence(long sequence) {
+        return new ConfigVersion(Long.toString(sequence), null, sequence, false);
+    }
+
+    public static ConfigVersion ofFingerprint(String fingerprint, Instant lastUpdated) {
+        return new ConfigVersion(fingerprint, lastUpdated == null ? Instant.EPOCH : lastUpdated, null, true);
+    }
+
     public ConfigVersion {
         Objects.requireNonNull(value, "value");
     }
 
+    public ConfigVersion(String value, Instant instantValue) {
+        this(value, instantValue, null, false);
+    }
+
+    public boolean isSequenceBased() {
+        return sequenceValue != null;
+    }
+
+    /**
+     * Whether {@link #compareTo} can order this version against {@code other}: both sequence-based, both
+     * carrying an instant (timestamps and fingerprints), or both opaque values.
+     */
+    public boolean isComparableTo(ConfigVersion other) {
+        return other == null || kind() == other.kind();
+    }
+
+    public boolean isNewerThan(ConfigVersion other) {
+        return compareTo(other) > 0;
+    }
+
+    public boolean differsFrom(ConfigVersion other) {
+        if (other != null && fingerprint && other.fingerprint) {
+            return !value.equals(other.value);
+        }
+        // A version of another kind means the source changed how it versions; there is nothing to order it against.
+        return !isComparableTo(other) || isNewerThan(other);
+    }
+
     @Override
     public int compareTo(ConfigVersion other) {
         if (other == null) {
             return 1;
         }
-        if (instantValue != null && other.instantValue != null) {
+        if (!isComparableTo(other)) {
+            throw new IllegalArgumentException("Cannot order version " + value + " against " + other.value + " of a different kind");
+        }
+        if (sequenceValue != null) {
+            return Long.compare(sequenceValue, other.sequenceValue);
+        }
+        if (instantValue != null) {
             return instantValue.compareTo(other.instantValue);
         }
         return value.compareTo(other.value);
     }
+
+    private int kind() {
+        return sequenceValue != null ? 0 : instantValue != null ? 1 : 2;
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.dbconfig.core;
+
+import java.util.Map;
+
+public record ConfigVersionVector(ConfigVersion defaultLayer, Map<String, ConfigVersion> profileLayers) {
+
+    public ConfigVersionVector {
+        profileLayers = profileLayers == null ? Map.of() : Map.copyOf(profileLayers);
+    }
+
+    public ConfigVersion latest() {
+        ConfigVersion latest = defaultLayer;
+        for (ConfigVersion layer : profileLayers.values()) {
+            if (layer.isNewerThan(latest)) {
+                latest = layer;
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.dbconfig.core;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public final class LazyPropertyValue {
+
+    private final String key;
+    private final long length;
+    private final String hash;
+    private final Function<String, Fetched> loader;
+    private final Consumer<LazyPropertyValue> onMismatch;
+    private volatile boolean loaded;
+    private Object value;
+
+    /**
+     * @param loader fetches the current value together with its hash as computed by the source
+     * @param onMismatch called when the fetched hash is not {@code hash}, i.e. the row changed after the
+     *                   snapshot was taken; that value is returned but not cached, so the next read fetches again
+     */
+    public LazyPropertyValue(String key, long length, String hash, Function<String, Fetched> loader, Consumer<LazyPropertyValue> onMismatch) {
+        this.key = key;
+        this.length = length;
+        this.hash = hash;
+        this.loader = loader;
+        this.onMismatch = onMismatch;
+    }
+
+    public static Object resolve(Object value) {
+        return value instanceof LazyPropertyValue lazy ? lazy.get() : value;
+    }
+
+    public Object get() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    Fetched fetched = loader.apply(key);
+                    if (hash != null && !hash.equals(fetched.hash())) {
+                        onMismatch.accept(this);
+                        return fetched.value();
+                    }
+                    value = fetched.value();
+                    loaded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public String hash() {
+        return hash;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    public String toString() {
+        return loaded ? String.valueOf(value) : "<deferred " + length + " chars>";
+    }
+
+    public record Fetched(Object value, String hash) {
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.dbconfig.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map for very large snapshots. Keys are kept sorted by their UTF-8 bytes in one shared
+ * byte arena and found by binary search; distinct String values are stored once in a second arena
+ * and decoded on read, with recently decoded values kept in a small direct-mapped cache.
+ */
+public final class PackedPropertyMap extends AbstractMap<String, Object> {
+
+    private static final int MAX_DECODED_CACHE = 4096;
+
+    private final byte[] keyBytes;
+    private final int[] keyOffsets;
+    private final int[] valueIds;
+    private final byte[] valueBytes;
+    private final int[] valueOffsets;
+    private final Object[] objectValues;
+    private final Decoded[] decoded;
+    private final int size;
+
+    private PackedPropertyMap(Writer writer) {
+        this.size = writer.count;
+        this.keyBytes = Arrays.copyOf(writer.keyBytes, writer.keyLength);
+        this.keyOffsets = Arrays.copyOf(writer.keyOffsets, size + 1);
+        this.valueIds = Arrays.copyOf(writer.valueIds, size);
+        this.valueBytes = Arrays.copyOf(writer.valueBytes, writer.valueLength);
+        this.valueOffsets = Arrays.copyOf(writer.valueOffsets, writer.stringCount + 1);
+        this.objectValues = writer.objects.toArray();
+        this.decoded = new Decoded[Math.min(MAX_DECODED_CACHE, Integer.highestOneBit(Math.max(1, writer.stringCount * 2 - 1)))];
+    }
+
+    public static PackedPropertyMap copyOf(Map<String, ?> properties) {
+        if (properties instanceof PackedPropertyMap packed) {
+            return packed;
+        }
+        List<Change> entries = new ArrayList<>(properties.size());
+        properties.forEach((key, value) -> {
+            if (value != null) {
+                entries.add(new Change(key.getBytes(StandardCharsets.UTF_8), value));
+            }
+        });
+        entries.sort(Change.ORDER);
+        Writer writer = new Writer(entries.size());
+        for (Change entry : entries) {
+            writer.add(entry.key(), 0, entry.key().length, entry.value());
+        }
+        return new PackedPropertyMap(writer);
+    }
+
+    public PackedPropertyMap withChanges(Map<String, ?> upserts, Collection<String> removals) {
+        if (upserts.isEmpty() && removals.isEmpty()) {
+            return this;
+        }
+        Map<String, Object> merged = new LinkedHashMap<>(upserts);
+        removals.forEach(key -> merged.put(key, null));
+        List<Change> changes = new ArrayList<>(merged.size());
+        merged.forEach((key, value) -> changes.add(new Change(key.getBytes(StandardCharsets.UTF_8), value)));
+        changes.sort(Change.ORDER);
+        Writer writer = new Writer(size + changes.size());
+        int i = 0;
+        int j = 0;
+        while (i < size || j < changes.size()) {
+            int cmp = i == size ? 1 : j == changes.size() ? -1 : compareKey(i, changes.get(j).key());
+            if (cmp < 0) {
+                writer.addExisting(this, i++);
+                continue;
+            }
+            Change change = changes.get(j++);
+            if (change.value() != null) {
+                writer.add(change.key(), 0, change.key().length, change.value());
+            }
+            if (cmp == 0) {
+                i++;
+            }
+        }
+        return new PackedPropertyMap(writer);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        int index = indexOf(name);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String name && indexOf(name) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public boolean hasSameKeys(PackedPropertyMap other) {
+        return size == other.size && Arrays.equals(keyOffsets, other.keyOffsets) && Arrays.equals(keyBytes, other.keyBytes);
+    }
+
+    public String[] keysWithPrefix(String prefix) {
+        byte[] encoded = prefix.getBytes(StandardCharsets.UTF_8);
+        int from = lowerBound(encoded);
+        int to = from;
+        while (to < size && keyStartsWith(to, encoded)) {
+            to++;
+        }
+        String[] keys = new String[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = keyAt(i);
+        }
+        return keys;
+    }
+
+    public boolean hasKeyWithPrefix(String prefix) {
+        byte[] encoded = prefix.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(encoded);
+        return index < size && keyStartsWith(index, encoded);
+    }
+
+    public String[] keys() {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyAt(i);
+        }
+        return keys;
+    }
+
+    public String keyAt(int index) {
+        return new String(keyBytes, keyOffsets[index], keyOffsets[index + 1] - keyOffsets[index], StandardCharsets.UTF_8);
+    }
+
+    public Object valueAt(int index) {
+        int id = valueIds[index];
+        if (id < 0) {
+            return objectValues[-id - 1];
+        }
+        int slot = id & (decoded.length - 1);
+        Decoded cached = decoded[slot];
+        if (cached != null && cached.id() == id) {
+            return cached.value();
+        }
+        String value = new String(valueBytes, valueOffsets[id], valueOffsets[id + 1] - valueOffsets[id], StandardCharsets.UTF_8);
+        decoded[slot] = new Decoded(id, value);
+        return value;
+    }
+
+    public int indexOf(String name) {
+        byte[] encoded = isAscii(name) ? null : name.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = encoded == null ? compareAscii(mid, name) : compareKey(mid, encoded);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareKey(mid, key) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean keyStartsWith(int index, byte[] prefix) {
+        int start = keyOffsets[index];
+        return keyOffsets[index + 1] - start >= prefix.length
+                && Arrays.equals(keyBytes, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private int compareAscii(int index, String name) {
+        int start = keyOffsets[index];
+        int length = keyOffsets[index + 1] - start;
+        int common = Math.min(length, name.length());
+        for (int k = 0; k < common; k++) {
+            int diff = (keyBytes[start + k] & 0xff) - name.charAt(k);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - name.length();
+    }
+
+    private int compareKey(int index, byte[] key) {
+        return Arrays.compareUnsigned(keyBytes, keyOffsets[index], keyOffsets[index + 1], key, 0, key.length);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Decoded(int id, String value) {
+    }
+
+    private record Change(byte[] key, Object value) {
+
+        private static final Comparator<Change> ORDER = (left, right) -> Arrays.compareUnsigned(left.key, right.key);
+    }
+
+    private static final class Writer {
+
+        private final Map<Object, Integer> ids = new HashMap<>();
+        private final List<Object> objects = new ArrayList<>();
+        private byte[] keyBytes;
+        private int keyLength;
+        private final int[] keyOffsets;
+        private final int[] valueIds;
+        private int count;
+        private byte[] valueBytes = new byte[256];
+        private int valueLength;
+        private int[] valueOffsets = new int[17];
+        private int stringCount;
+        private PackedPropertyMap remapSource;
+        private int[] remap;
+
+        private Writer(int capacity) {
+            this.keyBytes = new byte[Math.max(16, capacity * 24)];
+            this.keyOffsets = new int[capacity + 1];
+            this.valueIds = new int[capacity];
+        }
+
+        private void add(byte[] key, int offset, int length, Object value) {
+            appendKey(key, offset, length);
+            valueIds[count++] = idOf(value);
+        }
+
+        private void addExisting(PackedPropertyMap source, int index) {
+            int start = source.keyOffsets[index];
+            appendKey(source.keyBytes, start, source.keyOffsets[index + 1] - start);
+            int id = source.valueIds[index];
+            if (id < 0) {
+                valueIds[count++] = idOf(source.objectValues[-id - 1]);
+                return;
+            }
+            if (remapSource != source) {
+                remapSource = source;
+                remap = new int[source.valueOffsets.length - 1];
+                Arrays.fill(remap, Integer.MIN_VALUE);
+            }
+            if (remap[id] == Integer.MIN_VALUE) {
+                int valueStart = source.valueOffsets[id];
+                remap[id] = appendValue(source.valueBytes, valueStart, source.valueOffsets[id + 1] - valueStart);
+            }
+            valueIds[count++] = remap[id];
+        }
+
+        // Existing values are copied as raw bytes, so a value that is both kept and newly written may be stored twice.
+        private int appendValue(byte[] bytes, int offset, int length) {
+            if (valueLength + length > valueBytes.length) {
+                valueBytes = Arrays.copyOf(valueBytes, Math.max(valueBytes.length * 2, valueLength + length));
+            }
+            if (stringCount + 2 > valueOffsets.length) {
+                valueOffsets = Arrays.copyOf(valueOffsets, valueOffsets.length * 2);
+            }
+            System.arraycopy(bytes, offset, valueBytes, valueLength, length);
+            valueLength += length;
+            valueOffsets[++stringCount] = valueLength;
+            return stringCount - 1;
+        }
+
+        private void appendKey(byte[] key, int offset, int length) {
+            if (keyLength + length > keyBytes.length) {
+                keyBytes = Arrays.copyOf(keyBytes, Math.max(keyBytes.length * 2, keyLength + length));
+            }
+            System.arraycopy(key, offset, keyBytes, keyLength, length);
+            keyLength += length;
+            keyOffsets[count + 1] = keyLength;
+        }
+
+        private int idOf(Object value) {
+            Integer existing = ids.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int id;
+            if (value instanceof String text) {
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                id = appendValue(bytes, 0, bytes.length);
+            }
+            else {
+                objects.add(value);
+                id = -objects.size();
+            }
+            ids.put(value, id);
+            return id;
+        }
+    }
+}
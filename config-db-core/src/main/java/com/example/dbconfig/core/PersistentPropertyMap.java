@@ -0,0 +1,414 @@
+package com.example.dbconfig.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash array mapped trie. {@link #withChanges} returns a new map that shares every
+ * untouched node with this one, so a delta allocates only the paths to the changed keys.
+ */
+public final class PersistentPropertyMap extends AbstractMap<String, Object> {
+
+    private static final PersistentPropertyMap EMPTY = new PersistentPropertyMap(new BitmapNode(0, new Object[0], null), 0);
+
+    private final BitmapNode root;
+    private final int size;
+
+    private PersistentPropertyMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static PersistentPropertyMap empty() {
+        return EMPTY;
+    }
+
+    public static PersistentPropertyMap copyOf(Map<String, ?> properties) {
+        if (properties instanceof PersistentPropertyMap persistent) {
+            return persistent;
+        }
+        return EMPTY.withChanges(properties, List.of());
+    }
+
+    public PersistentPropertyMap withChanges(Map<String, ?> upserts, Collection<String> removals) {
+        Batch batch = new Batch(size);
+        BitmapNode updated = root;
+        for (Map.Entry<String, ?> entry : upserts.entrySet()) {
+            if (entry.getValue() == null) {
+                updated = remove(updated, entry.getKey(), entry.getKey().hashCode(), 0, batch);
+            }
+            else {
+                updated = put(updated, new Leaf(entry.getKey(), entry.getValue()), 0, batch);
+            }
+        }
+        for (String key : removals) {
+            updated = remove(updated, key, key.hashCode(), 0, batch);
+        }
+        if (updated == root) {
+            return this;
+        }
+        return batch.size == 0 ? EMPTY : new PersistentPropertyMap(updated, batch.size);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        int hash = name.hashCode();
+        Object node = root;
+        for (int shift = 0; ; shift += 5) {
+            if (node instanceof BitmapNode bitmapNode) {
+                int bit = bit(hash, shift);
+                if ((bitmapNode.bitmap & bit) == 0) {
+                    return null;
+                }
+                node = bitmapNode.slots[index(bitmapNode.bitmap, bit)];
+            }
+            else if (node instanceof Leaf leaf) {
+                return leaf.hash == hash && leaf.getKey().equals(name) ? leaf.getValue() : null;
+            }
+            else {
+                return ((CollisionNode) node).get(name);
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new LeafIterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static BitmapNode put(BitmapNode node, Leaf leaf, int shift, Batch batch) {
+        int bit = bit(leaf.hash, shift);
+        int index = index(node.bitmap, bit);
+        if ((node.bitmap & bit) == 0) {
+            batch.size++;
+            return batch.edit(node, node.bitmap | bit, insert(node.slots, index, leaf));
+        }
+        Object current = node.slots[index];
+        Object replacement;
+        if (current instanceof Leaf existing) {
+            if (existing.getKey().equals(leaf.getKey())) {
+                if (Objects.equals(existing.getValue(), leaf.getValue())) {
+                    return node;
+                }
+                replacement = leaf;
+            }
+            else {
+                batch.size++;
+                replacement = merge(existing, existing.hash, leaf, shift + 5, batch);
+            }
+        }
+        else if (current instanceof BitmapNode child) {
+            replacement = put(child, leaf, shift + 5, batch);
+        }
+        else {
+            CollisionNode collision = (CollisionNode) current;
+            if (collision.hash == leaf.hash) {
+                replacement = collision.put(leaf, batch);
+            }
+            else {
+                batch.size++;
+                replacement = merge(collision, collision.hash, leaf, shift + 5, batch);
+            }
+        }
+        return replacement == current ? node : batch.set(node, index, replacement);
+    }
+
+    private static Object merge(Object first, int firstHash, Leaf second, int shift, Batch batch) {
+        if (firstHash == second.hash) {
+            return new CollisionNode(firstHash, new Leaf[] {(Leaf) first, second});
+        }
+        int firstBit = bit(firstHash, shift);
+        int secondBit = bit(second.hash, shift);
+        if (firstBit == secondBit) {
+            return new BitmapNode(firstBit, new Object[] {merge(first, firstHash, second, shift + 5, batch)}, batch.owner);
+        }
+        Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0 ? new Object[] {first, second} : new Object[] {second, first};
+        return new BitmapNode(firstBit | secondBit, slots, batch.owner);
+    }
+
+    private static BitmapNode remove(BitmapNode node, String key, int hash, int shift, Batch batch) {
+        int bit = bit(hash, shift);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int index = index(node.bitmap, bit);
+        Object current = node.slots[index];
+        Object replacement;
+        if (current instanceof Leaf leaf) {
+            if (!leaf.getKey().equals(key)) {
+                return node;
+            }
+            batch.size--;
+            replacement = null;
+        }
+        else if (current instanceof BitmapNode child) {
+            BitmapNode updated = remove(child, key, hash, shift + 5, batch);
+            replacement = updated.bitmap == 0 ? null : updated.slots.length == 1 && updated.slots[0] instanceof Leaf only ? only : updated;
+            if (replacement == current) {
+                return node;
+            }
+        }
+        else {
+            replacement = ((CollisionNode) current).remove(key, batch);
+            if (replacement == current) {
+                return node;
+            }
+        }
+        if (replacement == null) {
+            return batch.edit(node, node.bitmap & ~bit, removeAt(node.slots, index));
+        }
+        return batch.set(node, index, replacement);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static Object[] insert(Object[] slots, int index, Object value) {
+        Object[] copy = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+        return copy;
+    }
+
+    private static Object[] removeAt(Object[] slots, int index) {
+        Object[] copy = new Object[slots.length - 1];
+        System.arraycopy(slots, 0, copy, 0, index);
+        System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+        return copy;
+    }
+
+    private static final class Leaf implements Entry<String, Object> {
+
+        private final String key;
+        private final Object value;
+        private final int hash;
+
+        private Leaf(String key, Object value) {
+            this.key = key;
+            this.value = value;
+            this.hash = key.hashCode();
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry<?, ?> entry && key.equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    // Nodes created inside one withChanges call are edited in place by that call only; once the
+    // map is returned its owner token is never used again, so published nodes are effectively immutable.
+    private static final class BitmapNode {
+
+        private final Object owner;
+        private int bitmap;
+        private Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots, Object owner) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+            this.owner = owner;
+        }
+    }
+
+    private static final class CollisionNode {
+
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        private Object get(String key) {
+            for (Leaf leaf : leaves) {
+                if (leaf.getKey().equals(key)) {
+                    return leaf.getValue();
+                }
+            }
+            return null;
+        }
+
+        private Object put(Leaf leaf, Batch batch) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].getKey().equals(leaf.getKey())) {
+                    if (Objects.equals(leaves[i].getValue(), leaf.getValue())) {
+                        return this;
+                    }
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            batch.size++;
+            Leaf[] copy = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, copy, 0, leaves.length);
+            copy[leaves.length] = leaf;
+            return new CollisionNode(hash, copy);
+        }
+
+        private Object remove(String key, Batch batch) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].getKey().equals(key)) {
+                    batch.size--;
+                    if (leaves.length == 2) {
+                        return leaves[1 - i];
+                    }
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return this;
+        }
+    }
+
+    private static final class Batch {
+
+        private final Object owner = new Object();
+        private int size;
+
+        private Batch(int size) {
+            this.size = size;
+        }
+
+        private BitmapNode edit(BitmapNode node, int bitmap, Object[] slots) {
+            if (node.owner == owner) {
+                node.bitmap = bitmap;
+                node.slots = slots;
+                return node;
+            }
+            return new BitmapNode(bitmap, slots, owner);
+        }
+
+        private BitmapNode set(BitmapNode node, int index, Object value) {
+            if (node.owner == owner) {
+                node.slots[index] = value;
+                return node;
+            }
+            Object[] slots = node.slots.clone();
+            slots[index] = value;
+            return new BitmapNode(node.bitmap, slots, owner);
+        }
+    }
+
+    private static final class LeafIterator implements Iterator<Entry<String, Object>> {
+
+        private final Deque<Object[]> slots = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Leaf next;
+
+        private LeafIterator(BitmapNode root) {
+            push(root.slots);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf current = next;
+            advance();
+            return current;
+        }
+
+        private void push(Object[] array) {
+            slots.push(array);
+            positions.push(0);
+        }
+
+        private void advance() {
+            next = null;
+            while (!slots.isEmpty()) {
+                Object[] array = slots.peek();
+                int position = positions.pop();
+                if (position >= array.length) {
+                    slots.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                Object slot = array[position];
+                if (slot instanceof Leaf leaf) {
+                    next = leaf;
+                    return;
+                }
+                push(slot instanceof BitmapNode node ? node.slots : ((CollisionNode) slot).leaves);
+            }
+        }
+    }
+}
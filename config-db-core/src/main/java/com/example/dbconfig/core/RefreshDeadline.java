@@ -0,0 +1,90 @@
+package com.example.dbconfig.core;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class RefreshDeadline {
+
+    private static final RefreshDeadline NONE = new RefreshDeadline(0L, false);
+    private static final ThreadLocal<RefreshDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private RefreshDeadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    public static RefreshDeadline none() {
+        return NONE;
+    }
+
+    public static RefreshDeadline after(Duration budget) {
+        if (budget == null || budget.isZero() || budget.isNegative()) {
+            return NONE;
+        }
+        return new RefreshDeadline(System.nanoTime() + budget.toNanos(), true);
+    }
+
+    public static RefreshDeadline current() {
+        RefreshDeadline current = CURRENT.get();
+        return current == null ? NONE : current;
+    }
+
+    public Handle activate() {
+        RefreshDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public Duration remaining() {
+        if (!bounded) {
+            throw new IllegalStateException("Deadline is unbounded");
+        }
+        return Duration.ofNanos(Math.max(0L, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean allows(Duration duration) {
+        return !bounded || remaining().compareTo(duration) > 0;
+    }
+
+    public Handle onExpiry(Runnable action) {
+        if (!bounded) {
+            return () -> { };
+        }
+        ScheduledFuture<?> future = Canceller.EXECUTOR.schedule(action, Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        return () -> future.cancel(false);
+    }
+
+    public interface Handle extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Canceller {
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dbconfig-deadline-canceller");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
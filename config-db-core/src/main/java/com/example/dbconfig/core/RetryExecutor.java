@@ -12,8 +12,17 @@ public final class RetryExecutor {
     }
 
     public static <T> T execute(Supplier<T> action, RetryPolicy policy, Logger log, String operationName) {
+        return execute(action, policy, log, operationName, RefreshDeadline.none());
+    }
+
+    public static <T> T execute(Supplier<T> action, RetryPolicy policy, Logger log, String operationName, RefreshDeadline deadline) {
         RuntimeException lastRuntimeException = null;
         for (int attempt = 1; attempt <= policy.maxAttempts(); attempt++) {
+            if (deadline.isExpired()) {
+                throw lastRuntimeException != null ? lastRuntimeException
+                        : new IllegalStateException("Refresh deadline exceeded before '" + operationName + "'");
+            }
+            long attemptStart = System.nanoTime();
             try {
                 return action.get();
             }
@@ -23,6 +32,15 @@ public final class RetryExecutor {
                     throw ex;
                 }
                 Duration delay = computeDelay(policy, attempt);
+                Duration attemptTime = Duration.ofNanos(System.nanoTime() - attemptStart);
+                if (!deadline.allows(delay.plus(attemptTime))) {
+                    log.debug("Operation '{}' failed at attempt {}/{}. Remaining deadline cannot cover another attempt.",
+                            operationName,
+                            attempt,
+                            policy.maxAttempts(),
+                            ex);
+                    throw ex;
+                }
                 log.debug("Operation '{}' failed at attempt {}/{}. Retrying in {} ms.",
                         operationName,
                         attempt,
@@ -0,0 +1,118 @@
+package com.example.dbconfig.core;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public final class SnapshotProperties extends AbstractMap<String, Object> {
+
+    private static final SnapshotProperties EMPTY = new SnapshotProperties(Map.of());
+
+    private final Map<String, Object> values;
+
+    private SnapshotProperties(Map<String, Object> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    public static SnapshotProperties empty() {
+        return EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SnapshotProperties copyOf(Map<String, ?> properties) {
+        if (properties instanceof SnapshotProperties snapshotProperties) {
+            return snapshotProperties;
+        }
+        if (properties == null || properties.isEmpty()) {
+            return EMPTY;
+        }
+        if (properties instanceof PersistentPropertyMap || properties instanceof PackedPropertyMap) {
+            return new SnapshotProperties((Map<String, Object>) properties);
+        }
+        return builder(properties.size()).putAll(properties).build();
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return values.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return values.keySet();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return values.entrySet();
+    }
+
+    public static final class Builder {
+
+        private HashMap<String, Object> values;
+
+        private Builder(int expectedSize) {
+            this.values = new HashMap<>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        }
+
+        public Builder put(String key, Object value) {
+            ensureOpen();
+            if (value == null) {
+                values.remove(key);
+            }
+            else {
+                values.put(key, value);
+            }
+            return this;
+        }
+
+        public Builder putAll(Map<String, ?> properties) {
+            properties.forEach(this::put);
+            return this;
+        }
+
+        public Builder remove(String key) {
+            ensureOpen();
+            values.remove(key);
+            return this;
+        }
+
+        public SnapshotProperties build() {
+            ensureOpen();
+            Map<String, Object> built = values;
+            values = null;
+            return built.isEmpty() ? EMPTY : new SnapshotProperties(built);
+        }
+
+        private void ensureOpen() {
+            if (values == null) {
+                throw new IllegalStateException("SnapshotProperties already built");
+            }
+        }
+    }
+}
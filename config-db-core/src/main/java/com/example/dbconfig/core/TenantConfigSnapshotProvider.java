@@ -0,0 +1,15 @@
+package com.example.dbconfig.core;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface TenantConfigSnapshotProvider {
+
+    Map<String, ConfigVersion> fetchTenantVersions(ActiveProfiles profiles);
+
+    Map<String, Map<String, Object>> fetchTenantOverrides(ActiveProfiles profiles, Collection<String> tenantIds);
+
+    default Map<String, Map<String, Object>> fetchAllTenantOverrides(ActiveProfiles profiles) {
+        return fetchTenantOverrides(profiles, null);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.dbconfig.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class ConfigVersionTest {
+
+    private static final Instant T1 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant T2 = Instant.parse("2024-02-01T00:00:00Z");
+
+    @Test
+    void sequencesCompareNumerically() {
+        assertThat(ConfigVersion.ofSequence(10).isNewerThan(ConfigVersion.ofSequence(9))).isTrue();
+        assertThat(ConfigVersion.ofSequence(9).isNewerThan(ConfigVersion.ofSequence(10))).isFalse();
+    }
+
+    @Test
+    void timestampsAndFingerprintsCompareByInstant() {
+        assertThat(ConfigVersion.ofFingerprint("abc", T2).isNewerThan(ConfigVersion.ofInstant(T1))).isTrue();
+        assertThat(ConfigVersion.ofInstant(T1).isComparableTo(ConfigVersion.ofFingerprint("abc", T2))).isTrue();
+    }
+
+    @Test
+    void mixedKindsCannotBeOrdered() {
+        ConfigVersion sequence = ConfigVersion.ofSequence(20240101);
+        ConfigVersion instant = ConfigVersion.ofInstant(T1);
+
+        assertThat(sequence.isComparableTo(instant)).isFalse();
+        assertThatThrownBy(() -> sequence.compareTo(instant)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> instant.isNewerThan(sequence)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mixedKindsAlwaysDiffer() {
+        assertThat(ConfigVersion.ofSequence(1).differsFrom(ConfigVersion.ofInstant(T2))).isTrue();
+        assertThat(ConfigVersion.ofInstant(T1).differsFrom(ConfigVersion.ofSequence(1))).isTrue();
+        assertThat(ConfigVersion.ofInstant(T1).differsFrom(ConfigVersion.ofInstant(T1))).isFalse();
+    }
+}
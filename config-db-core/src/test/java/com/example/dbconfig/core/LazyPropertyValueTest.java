@@ -0,0 +1,66 @@
+package com.example.dbconfig.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LazyPropertyValueTest {
+
+    @Test
+    void matchingHashIsLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        List<String> mismatches = new ArrayList<>();
+        LazyPropertyValue value = new LazyPropertyValue("demo.big", 5, "h1", key -> {
+            loads.incrementAndGet();
+            return new LazyPropertyValue.Fetched("value", "h1");
+        }, lazy -> mismatches.add(lazy.key()));
+
+        assertThat(value.isLoaded()).isFalse();
+        assertThat(value.toString()).isEqualTo("<deferred 5 chars>");
+        assertThat(value.get()).isEqualTo("value");
+        assertThat(value.get()).isEqualTo("value");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(value.isLoaded()).isTrue();
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void hashMismatchReturnsFreshValueWithoutCaching() {
+        AtomicInteger loads = new AtomicInteger();
+        List<String> mismatches = new ArrayList<>();
+        LazyPropertyValue value = new LazyPropertyValue("demo.big", 5, "h1", key -> {
+            loads.incrementAndGet();
+            return new LazyPropertyValue.Fetched("newer", "h2");
+        }, lazy -> mismatches.add(lazy.key()));
+
+        assertThat(value.get()).isEqualTo("newer");
+        assertThat(value.get()).isEqualTo("newer");
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(value.isLoaded()).isFalse();
+        assertThat(mismatches).containsExactly("demo.big", "demo.big");
+    }
+
+    @Test
+    void missingSnapshotHashSkipsVerification() {
+        LazyPropertyValue value = new LazyPropertyValue("demo.big", 5, null, key -> new LazyPropertyValue.Fetched("value", "h2"),
+                lazy -> { throw new AssertionError("unexpected mismatch"); });
+
+        assertThat(value.get()).isEqualTo("value");
+        assertThat(value.isLoaded()).isTrue();
+    }
+
+    @Test
+    void resolvePassesPlainValuesThrough() {
+        LazyPropertyValue value = new LazyPropertyValue("demo.big", 5, "h1", key -> new LazyPropertyValue.Fetched("value", "h1"), lazy -> { });
+
+        assertThat(LazyPropertyValue.resolve("plain")).isEqualTo("plain");
+        assertThat(LazyPropertyValue.resolve(null)).isNull();
+        assertThat(LazyPropertyValue.resolve(value)).isEqualTo("value");
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.dbconfig.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PersistentPropertyMapTest {
+
+    @Test
+    void putAddsAndReplacesValues() {
+        PersistentPropertyMap map = PersistentPropertyMap.copyOf(Map.of("demo.a", "1", "demo.b", "2"));
+
+        PersistentPropertyMap updated = map.withChanges(Map.of("demo.b", "3", "demo.c", "4"), List.of());
+
+        assertThat(updated).hasSize(3);
+        assertThat(updated).containsEntry("demo.b", "3");
+        assertThat(updated).containsEntry("demo.c", "4");
+        assertThat(map).containsEntry("demo.b", "2");
+        assertThat(map).doesNotContainKey("demo.c");
+    }
+
+    @Test
+    void unchangedValueReturnsSameMap() {
+        PersistentPropertyMap map = PersistentPropertyMap.copyOf(Map.of("demo.a", "1"));
+
+        assertThat(map.withChanges(Map.of("demo.a", "1"), List.of("demo.missing"))).isSameAs(map);
+    }
+
+    @Test
+    void removeDropsKeysAndEmptiesMap() {
+        PersistentPropertyMap map = PersistentPropertyMap.copyOf(Map.of("demo.a", "1", "demo.b", "2"));
+
+        PersistentPropertyMap removed = map.withChanges(Map.of(), List.of("demo.a"));
+        assertThat(removed).hasSize(1);
+        assertThat(removed).doesNotContainKey("demo.a");
+        assertThat(removed.get("demo.b")).isEqualTo("2");
+
+        assertThat(removed.withChanges(Map.of(), List.of("demo.b"))).isSameAs(PersistentPropertyMap.empty());
+    }
+
+    @Test
+    void collidingKeysAreKeptApart() {
+        // "Aa" and "BB" share a String hash code, and so do all their concatenations.
+        PersistentPropertyMap map = PersistentPropertyMap.copyOf(Map.of("AaAa", "1", "AaBB", "2", "BBAa", "3"));
+        assertThat("AaAa".hashCode()).isEqualTo("BBBB".hashCode());
+
+        PersistentPropertyMap updated = map.withChanges(Map.of("BBBB", "4", "AaBB", "5"), List.of("AaAa"));
+
+        assertThat(updated).hasSize(3);
+        assertThat(updated).containsEntry("AaBB", "5");
+        assertThat(updated).containsEntry("BBAa", "3");
+        assertThat(updated).containsEntry("BBBB", "4");
+        assertThat(updated).doesNotContainKey("AaAa");
+        assertThat(map).containsEntry("AaAa", "1");
+        assertThat(map).containsEntry("AaBB", "2");
+
+        PersistentPropertyMap single = updated.withChanges(Map.of(), List.of("AaBB", "BBAa"));
+        assertThat(single).hasSize(1);
+        assertThat(single.get("BBBB")).isEqualTo("4");
+        assertThat(single.entrySet()).hasSize(1);
+    }
+
+    @Test
+    void removalsCollapseNodesWithoutLosingKeys() {
+        Map<String, Object> all = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            all.put("demo.key" + i, "v" + i);
+        }
+        PersistentPropertyMap map = PersistentPropertyMap.copyOf(all);
+        List<String> removals = all.keySet().stream().filter(key -> !key.endsWith("7")).toList();
+
+        PersistentPropertyMap collapsed = map.withChanges(Map.of(), removals);
+
+        all.keySet().removeAll(removals);
+        assertThat(collapsed).hasSize(all.size());
+        assertThat(collapsed).isEqualTo(all);
+        all.forEach((key, value) -> assertThat(collapsed.get(key)).isEqualTo(value));
+        assertThat(map).hasSize(2000);
+    }
+
+    @Test
+    void batchEditsDoNotLeakIntoEarlierMaps() {
+        Random random = new Random(42);
+        Map<String, Object> expected = new HashMap<>();
+        PersistentPropertyMap map = PersistentPropertyMap.empty();
+        for (int round = 0; round < 50; round++) {
+            Map<String, Object> before = new HashMap<>(expected);
+            PersistentPropertyMap previous = map;
+            Map<String, Object> upserts = new HashMap<>();
+            Set<String> removals = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                String key = "demo.key" + random.nextInt(500);
+                if (random.nextInt(4) == 0) {
+                    removals.add(key);
+                }
+                else {
+                    upserts.put(key, "v" + random.nextInt(10));
+                }
+            }
+            removals.removeAll(upserts.keySet());
+            map = map.withChanges(upserts, removals);
+            expected.putAll(upserts);
+            expected.keySet().removeAll(removals);
+
+            assertThat(map).isEqualTo(expected);
+            assertThat(map).hasSize(expected.size());
+            assertThat(previous).isEqualTo(before);
+        }
+    }
+
+    @Test
+    void entriesCompareEqualToOtherMapEntries() {
+        PersistentPropertyMap map = PersistentPropertyMap.copyOf(Map.of("demo.a", "1"));
+
+        Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+
+        assertThat(entry).isEqualTo(Map.entry("demo.a", "1"));
+        assertThat(entry.hashCode()).isEqualTo(Map.entry("demo.a", "1").hashCode());
+        assertThat(map.hashCode()).isEqualTo(Map.of("demo.a", "1").hashCode());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.dbconfig.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class RetryExecutorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryExecutorTest.class);
+
+    private static final RetryExecutor.RetryPolicy POLICY = new RetryExecutor.RetryPolicy(3, Duration.ofMillis(500), Duration.ofSeconds(1), 0.2d);
+
+    @Test
+    void retriesUntilActionSucceedsWithoutDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        RetryExecutor.RetryPolicy policy = new RetryExecutor.RetryPolicy(3, Duration.ZERO, Duration.ZERO, 0.2d);
+
+        String result = RetryExecutor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("transient");
+            }
+            return "ok";
+        }, policy, log, "test");
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    void skipsRetryWhenDeadlineCannotCoverBackoff() {
+        AtomicInteger attempts = new AtomicInteger();
+        RefreshDeadline deadline = RefreshDeadline.after(Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> RetryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("transient");
+        }, POLICY, log, "test", deadline)).hasMessageContaining("transient");
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredDeadlineSkipsFirstAttempt() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        RefreshDeadline deadline = RefreshDeadline.after(Duration.ofNanos(1));
+        Thread.sleep(1);
+
+        assertThatThrownBy(() -> RetryExecutor.execute(attempts::incrementAndGet, POLICY, log, "test", deadline))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("deadline exceeded");
+
+        assertThat(attempts.get()).isEqualTo(0);
+    }
+
+    @Test
+    void expiryActionRunsOnlyWhileHandleIsOpen() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        RefreshDeadline.after(Duration.ofMillis(20)).onExpiry(fired::countDown);
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        RefreshDeadline.after(Duration.ofMillis(20)).onExpiry(cancelled::countDown).close();
+        assertThat(cancelled.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dbconfig.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SnapshotPropertiesTest {
+
+    @Test
+    void builderDropsNullValuesAndRemovedKeys() {
+        SnapshotProperties properties = SnapshotProperties.builder()
+                .put("demo.a", "1")
+                .put("demo.b", "2")
+                .put("demo.a", null)
+                .put("demo.c", "3")
+                .remove("demo.c")
+                .build();
+
+        assertThat(properties).hasSize(1);
+        assertThat(properties).containsEntry("demo.b", "2");
+        assertThat(properties).doesNotContainKey("demo.a");
+    }
+
+    @Test
+    void builderCannotBeReusedAfterBuild() {
+        SnapshotProperties.Builder builder = SnapshotProperties.builder().put("demo.a", "1");
+        builder.build();
+
+        assertThatThrownBy(() -> builder.put("demo.b", "2")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void copyOfDetachesFromSourceMap() {
+        Map<String, Object> source = new HashMap<>(Map.of("demo.a", "1"));
+
+        SnapshotProperties properties = SnapshotProperties.copyOf(source);
+        source.put("demo.b", "2");
+
+        assertThat(properties).hasSize(1);
+        assertThat(properties).isEqualTo(Map.of("demo.a", "1"));
+    }
+
+    @Test
+    void copyOfReusesImmutableMaps() {
+        SnapshotProperties properties = SnapshotProperties.copyOf(Map.of("demo.a", "1"));
+        PersistentPropertyMap persistent = PersistentPropertyMap.copyOf(Map.of("demo.a", "1"));
+
+        assertThat(SnapshotProperties.copyOf(properties)).isSameAs(properties);
+        assertThat(SnapshotProperties.copyOf(persistent)).isEqualTo(persistent);
+        assertThat(SnapshotProperties.copyOf(null)).isSameAs(SnapshotProperties.empty());
+        assertThat(SnapshotProperties.builder().put("demo.a", null).build()).isSameAs(SnapshotProperties.empty());
+    }
+
+    @Test
+    void viewsAreReadOnly() {
+        SnapshotProperties properties = SnapshotProperties.copyOf(Map.of("demo.a", "1"));
+
+        assertThatThrownBy(() -> properties.put("demo.b", "2")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> properties.keySet().remove("demo.a")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> properties.entrySet().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
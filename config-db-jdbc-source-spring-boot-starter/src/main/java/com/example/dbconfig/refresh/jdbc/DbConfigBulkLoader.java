@@ -0,0 +1,11 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+@FunctionalInterface
+public interface DbConfigBulkLoader {
+
+    Map<String, Object> loadKeyValues(DataSource dataSource, String sql);
+}
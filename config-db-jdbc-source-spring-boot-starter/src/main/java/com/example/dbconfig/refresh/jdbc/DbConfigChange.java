@@ -0,0 +1,18 @@
+package com.example.dbconfig.refresh.jdbc;
+
+public record DbConfigChange(String key, String profile, String value, boolean delete) {
+
+    public DbConfigChange {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Config key must not be blank");
+        }
+    }
+
+    public static DbConfigChange put(String key, String profile, String value) {
+        return new DbConfigChange(key, profile, value, false);
+    }
+
+    public static DbConfigChange delete(String key, String profile) {
+        return new DbConfigChange(key, profile, null, true);
+    }
+}
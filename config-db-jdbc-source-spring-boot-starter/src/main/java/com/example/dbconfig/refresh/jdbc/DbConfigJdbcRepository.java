@@ -1,51 +1,479 @@
 package com.example.dbconfig.refresh.jdbc;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.ConfigVersionVector;
+import com.example.dbconfig.core.LazyPropertyValue;
+import com.example.dbconfig.core.RefreshDeadline;
+import com.example.dbconfig.core.SnapshotProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 
 public class DbConfigJdbcRepository {
+    private static final Logger log = LoggerFactory.getLogger(DbConfigJdbcRepository.class);
 
     private final JdbcTemplate jdbcTemplate;
+    private final DbConfigSqlStatements statements;
+    private final Duration deltaLookback;
+    private final int fetchSize;
+    private final Duration statementTimeout;
+    private final DbConfigBulkLoader bulkLoader;
+    private volatile Map<String, LazyPropertyValue> lazyValues = Map.of();
+    private volatile Consumer<String> staleValueHandler = key -> { };
 
     public DbConfigJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, new JdbcConfigSourceProperties());
+    }
+
+    public DbConfigJdbcRepository(JdbcTemplate jdbcTemplate, JdbcConfigSourceProperties properties) {
+        this(jdbcTemplate, properties, resolveDialect(jdbcTemplate, properties));
+    }
+
+    public DbConfigJdbcRepository(JdbcTemplate jdbcTemplate, JdbcConfigSourceProperties properties, DbConfigSqlDialect dialect) {
+        this(jdbcTemplate, properties, dialect, null);
+    }
+
+    public DbConfigJdbcRepository(JdbcTemplate jdbcTemplate, JdbcConfigSourceProperties properties, DbConfigSqlDialect dialect, DbConfigBulkLoader bulkLoader) {
         this.jdbcTemplate = jdbcTemplate;
+        this.bulkLoader = bulkLoader;
+        this.statements = new DbConfigSqlStatements(properties, dialect);
+        Duration lookback = properties.getDelta().getLookback();
+        this.deltaLookback = lookback == null ? Duration.ZERO : lookback;
+        this.fetchSize = properties.getFetchSize();
+        this.statementTimeout = properties.getStatementTimeout();
+    }
+
+    public static DbConfigSqlDialect resolveDialect(JdbcTemplate jdbcTemplate, JdbcConfigSourceProperties properties) {
+        return properties.getDialect() == null ? DbConfigSqlDialect.detect(jdbcTemplate.getDataSource()) : properties.getDialect();
+    }
+
+    /**
+     * Called with the key when a deferred value no longer matches the hash recorded in the snapshot,
+     * typically to request a refresh.
+     */
+    public void setStaleValueHandler(Consumer<String> staleValueHandler) {
+        this.staleValueHandler = staleValueHandler == null ? key -> { } : staleValueHandler;
+    }
+
+    void onStaleValue(String key) {
+        staleValueHandler.accept(key);
+    }
+
+    JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public DbConfigSqlStatements getStatements() {
+        return statements;
     }
 
     public Instant getLastUpdated() {
-        Timestamp ts = jdbcTemplate.queryForObject("SELECT MAX(updated_at) FROM db_config_properties", Timestamp.class);
-        return ts == null ? Instant.EPOCH : ts.toInstant();
+        return query(statements.lastUpdated(), rs -> rs.next() ? toInstant(rs.getTimestamp(1)) : Instant.EPOCH);
+    }
+
+    Double queryForDouble(String sql) {
+        return query(sql, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            double value = rs.getDouble(1);
+            return rs.wasNull() ? null : value;
+        });
+    }
+
+    public ConfigVersion getCurrentVersion() {
+        if (statements.isFingerprintVersioned()) {
+            return queryFingerprint(statements.fingerprint());
+        }
+        return getGlobalVersion();
+    }
+
+    public ConfigVersion getCurrentVersion(List<String> profiles) {
+        if (statements.isFingerprintVersioned()) {
+            List<String> ranked = rankedProfiles(profiles);
+            return queryFingerprint(statements.fingerprint(ranked.size()), ranked.toArray());
+        }
+        return getGlobalVersion();
+    }
+
+    private ConfigVersion getGlobalVersion() {
+        if (statements.isSequenceVersioned()) {
+            return ConfigVersion.ofSequence(query(statements.sequenceVersion(), rs -> rs.next() ? rs.getLong(1) : 0L));
+        }
+        return ConfigVersion.ofInstant(getLastUpdated());
+    }
+
+    public ConfigVersionVector getVersionVector(List<String> profiles) {
+        List<String> ranked = rankedProfiles(profiles);
+        boolean sequenceVersioned = statements.isSequenceVersioned();
+        boolean fingerprintVersioned = statements.isFingerprintVersioned();
+        boolean withDigest = statements.hasFingerprintDigest();
+        return query(statements.versionVector(ranked.size()), rs -> {
+            ConfigVersion defaultLayer = null;
+            Map<String, ConfigVersion> profileLayers = new HashMap<>();
+            while (rs.next()) {
+                ConfigVersion layerVersion = sequenceVersioned
+                        ? ConfigVersion.ofSequence(rs.getLong("layer_version"))
+                        : fingerprintVersioned
+                                ? fingerprintVersion(rs, "layer_version", withDigest)
+                                : ConfigVersion.ofInstant(toInstant(rs.getTimestamp("layer_version")));
+                String profile = rs.getString("layer_profile");
+                if (profile == null) {
+                    defaultLayer = layerVersion;
+                }
+                else {
+                    profileLayers.put(profile, layerVersion);
+                }
+            }
+            return new ConfigVersionVector(defaultLayer, profileLayers);
+        }, ranked.toArray());
+    }
+
+    private ConfigVersion queryFingerprint(String sql, Object... args) {
+        boolean withDigest = statements.hasFingerprintDigest();
+        return query(sql, rs -> {
+            rs.next();
+            return fingerprintVersion(rs, "max_updated", withDigest);
+        }, args);
+    }
+
+    private ConfigVersion fingerprintVersion(ResultSet rs, String lastUpdatedColumn, boolean withDigest) throws SQLException {
+        Instant lastUpdated = toInstant(rs.getTimestamp(lastUpdatedColumn));
+        String digest = withDigest ? rs.getString("digest") : null;
+        String fingerprint = rs.getLong("row_count") + ":" + lastUpdated.toEpochMilli() + ":" + (digest == null ? "0" : digest);
+        return ConfigVersion.ofFingerprint(fingerprint, lastUpdated);
+    }
+
+    public boolean supportsDeltaFrom(ConfigVersion since) {
+        if (since == null) {
+            return false;
+        }
+        return statements.isSequenceVersioned() ? since.isSequenceBased() : since.instantValue() != null;
     }
 
     public Map<String, Object> loadMergedForProfiles(List<String> profiles) {
-        Map<String, Object> merged = loadByProfile(null);
-        for (String profile : profiles) {
-            merged.putAll(loadByProfile(profile));
+        Map<String, LazyPropertyValue> collected = new HashMap<>();
+        ResultSetExtractor<Map<String, Object>> extractor = propertiesExtractor(profiles, collected);
+        Map<String, Object> merged;
+        if (statements.getMergeMode() == JdbcConfigSourceProperties.MergeMode.PER_PROFILE) {
+            merged = loadMergedPerProfile(profiles, extractor);
+        }
+        else {
+            List<String> ranked = rankedProfiles(profiles);
+            List<Object> args = new ArrayList<>(ranked.size() * 2);
+            args.addAll(ranked);
+            args.addAll(ranked);
+            if (bulkLoader != null && !statements.hasLazyValues()) {
+                return bulkLoader.loadKeyValues(jdbcTemplate.getDataSource(), statements.inline(statements.textMergedLoad(ranked.size()), args));
+            }
+            merged = query(statements.mergedLoad(ranked.size()), extractor, args.toArray());
+        }
+        if (statements.hasLazyValues()) {
+            lazyValues = collected;
         }
         return merged;
     }
 
-    private Map<String, Object> loadByProfile(String profile) {
-        if (profile == null) {
-            return jdbcTemplate.query("SELECT prop_key, prop_value FROM db_config_properties WHERE profile IS NULL", rs -> {
-                Map<String, Object> result = new LinkedHashMap<>();
-                while (rs.next()) {
-                    result.put(rs.getString("prop_key"), rs.getString("prop_value"));
+    public Object loadValue(String key, List<String> profiles) {
+        return fetchValue(key, profiles).value();
+    }
+
+    private LazyPropertyValue.Fetched fetchValue(String key, List<String> profiles) {
+        List<String> ranked = rankedProfiles(profiles);
+        List<Object> args = new ArrayList<>(ranked.size() * 2 + 1);
+        args.add(key);
+        args.addAll(ranked);
+        args.addAll(ranked);
+        boolean hashed = statements.hasLazyValues();
+        return query(statements.valueLookup(ranked.size()),
+                rs -> rs.next() ? new LazyPropertyValue.Fetched(rs.getString("prop_value"), hashed ? rs.getString("value_hash") : null)
+                        : new LazyPropertyValue.Fetched(null, null),
+                args.toArray());
+    }
+
+    public PropertyChanges loadChangedForProfiles(List<String> profiles, ConfigVersion since) {
+        List<String> ranked = rankedProfiles(profiles);
+        List<Object> args = new ArrayList<>(ranked.size() * 2 + 1);
+        args.addAll(ranked);
+        args.add(statements.isSequenceVersioned() ? since.sequenceValue() : Timestamp.from(since.instantValue().minus(deltaLookback)));
+        args.addAll(ranked);
+        boolean tombstones = statements.hasTombstones();
+        ValueReader reader = valueReader(profiles);
+
+        PropertyChanges changes = query(statements.changedSince(ranked.size()), rs -> {
+            Map<String, Object> upserts = new HashMap<>();
+            Set<String> touched = new HashSet<>();
+            while (rs.next()) {
+                String key = rs.getString("prop_key");
+                touched.add(key);
+                Object value = tombstones && rs.getBoolean("tombstone") ? null : reader.read(rs, key);
+                if (value != null) {
+                    upserts.put(key, value);
                 }
-                return result;
-            });
+            }
+            touched.removeAll(upserts.keySet());
+            return new PropertyChanges(upserts, touched);
+        }, args.toArray());
+        rememberLazyValues(changes.upserts(), changes.removals());
+        return changes;
+    }
+
+    public Map<Integer, String> loadBucketDigests(List<String> profiles) {
+        List<String> ranked = rankedProfiles(profiles);
+        return query(statements.bucketDigests(ranked.size()), rs -> {
+            Map<Integer, String> digests = new HashMap<>();
+            while (rs.next()) {
+                digests.put(rs.getInt("bucket"), rs.getLong("row_count") + ":" + rs.getString("digest"));
+            }
+            return digests;
+        }, ranked.toArray());
+    }
+
+    public Map<Integer, Set<String>> loadBucketKeys(List<String> profiles) {
+        List<String> ranked = rankedProfiles(profiles);
+        return query(statements.bucketKeys(ranked.size()), rs -> {
+            Map<Integer, Set<String>> keysByBucket = new HashMap<>();
+            while (rs.next()) {
+                keysByBucket.computeIfAbsent(rs.getInt("bucket"), bucket -> new HashSet<>()).add(rs.getString("prop_key"));
+            }
+            return keysByBucket;
+        }, ranked.toArray());
+    }
+
+    public BucketRows loadBuckets(List<String> profiles, Collection<Integer> buckets) {
+        List<String> ranked = rankedProfiles(profiles);
+        int selected = buckets == null ? 0 : buckets.size();
+        List<Object> args = new ArrayList<>(ranked.size() * 2 + selected);
+        args.addAll(ranked);
+        if (buckets != null) {
+            args.addAll(buckets);
+        }
+        args.addAll(ranked);
+
+        ValueReader reader = valueReader(profiles);
+        BucketRows rows = query(statements.bucketRows(ranked.size(), selected), rs -> {
+            SnapshotProperties.Builder properties = SnapshotProperties.builder();
+            Map<Integer, Set<String>> keysByBucket = new HashMap<>();
+            while (rs.next()) {
+                String key = rs.getString("prop_key");
+                properties.put(key, reader.read(rs, key));
+                keysByBucket.computeIfAbsent(rs.getInt("bucket"), bucket -> new HashSet<>()).add(key);
+            }
+            return new BucketRows(properties.build(), keysByBucket);
+        }, args.toArray());
+        rememberLazyValues(rows.properties(), Set.of());
+        return rows;
+    }
+
+    public Map<String, ConfigVersion> getTenantVersions(List<String> profiles) {
+        List<String> ranked = rankedProfiles(profiles);
+        return query(statements.tenantVersions(ranked.size()), rs -> {
+            Map<String, ConfigVersion> versions = new HashMap<>();
+            while (rs.next()) {
+                Instant lastUpdated = toInstant(rs.getTimestamp("max_updated"));
+                versions.put(rs.getString("tenant_id"), ConfigVersion.ofFingerprint(rs.getLong("row_count") + ":" + lastUpdated.toEpochMilli(), lastUpdated));
+            }
+            return versions;
+        }, ranked.toArray());
+    }
+
+    public Map<String, Map<String, Object>> loadTenantOverrides(List<String> profiles, Collection<String> tenantIds) {
+        List<String> ranked = rankedProfiles(profiles);
+        int tenantCount = tenantIds == null ? 0 : tenantIds.size();
+        List<Object> args = new ArrayList<>(ranked.size() * 2 + tenantCount);
+        args.addAll(ranked);
+        if (tenantIds != null) {
+            args.addAll(tenantIds);
         }
+        args.addAll(ranked);
 
-        return jdbcTemplate.query("SELECT prop_key, prop_value FROM db_config_properties WHERE profile = ?", rs -> {
-            Map<String, Object> result = new LinkedHashMap<>();
+        return query(statements.tenantRows(ranked.size(), tenantCount), rs -> {
+            Map<String, SnapshotProperties.Builder> builders = new HashMap<>();
             while (rs.next()) {
-                result.put(rs.getString("prop_key"), rs.getString("prop_value"));
+                builders.computeIfAbsent(rs.getString("tenant_id"), tenant -> SnapshotProperties.builder())
+                        .put(rs.getString("prop_key"), rs.getString("prop_value"));
+            }
+            Map<String, Map<String, Object>> overrides = new HashMap<>(builders.size() * 2);
+            builders.forEach((tenant, builder) -> overrides.put(tenant, builder.build()));
+            return overrides;
+        }, args.toArray());
+    }
+
+    private Map<String, Object> loadMergedPerProfile(List<String> profiles, ResultSetExtractor<Map<String, Object>> extractor) {
+        SnapshotProperties.Builder merged = SnapshotProperties.builder().putAll(loadByProfile(null, extractor));
+        for (String profile : profiles) {
+            merged.putAll(loadByProfile(profile, extractor));
+        }
+        return merged.build();
+    }
+
+    private Map<String, Object> loadByProfile(String profile, ResultSetExtractor<Map<String, Object>> extractor) {
+        if (profile == null) {
+            return query(statements.nullLayer(), extractor);
+        }
+
+        return query(statements.profileLayer(), extractor, profile);
+    }
+
+    private ResultSetExtractor<Map<String, Object>> propertiesExtractor(List<String> profiles, Map<String, LazyPropertyValue> collected) {
+        if (!statements.hasLazyValues()) {
+            return this::extractProperties;
+        }
+        ValueReader reader = valueReader(profiles);
+        return rs -> {
+            SnapshotProperties.Builder result = SnapshotProperties.builder();
+            while (rs.next()) {
+                String key = rs.getString("prop_key");
+                Object value = reader.read(rs, key);
+                if (value instanceof LazyPropertyValue lazy) {
+                    collected.put(key, lazy);
+                }
+                result.put(key, value);
+            }
+            return result.build();
+        };
+    }
+
+    // Deltas extend the deferred values a later load may carry over instead of replacing them like a full load does.
+    private void rememberLazyValues(Map<String, Object> upserts, Collection<String> removals) {
+        if (!statements.hasLazyValues()) {
+            return;
+        }
+        Map<String, LazyPropertyValue> updated = new HashMap<>(lazyValues);
+        updated.keySet().removeAll(removals);
+        upserts.forEach((key, value) -> {
+            if (value instanceof LazyPropertyValue lazy) {
+                updated.put(key, lazy);
+            }
+            else {
+                updated.remove(key);
+            }
+        });
+        lazyValues = updated;
+    }
+
+    // Reads prop_value, or a deferred value for rows whose value_hash marks them as large; used by full and delta loads.
+    private ValueReader valueReader(List<String> profiles) {
+        if (!statements.hasLazyValues()) {
+            return (rs, key) -> rs.getString("prop_value");
+        }
+        Map<String, LazyPropertyValue> previous = lazyValues;
+        List<String> loadProfiles = List.copyOf(profiles);
+        Function<String, LazyPropertyValue.Fetched> loader = key -> fetchValue(key, loadProfiles);
+        Consumer<LazyPropertyValue> onMismatch = stale -> {
+            log.debug("Deferred value for {} changed since the snapshot was loaded", stale.key());
+            onStaleValue(stale.key());
+        };
+        return (rs, key) -> {
+            String hash = rs.getString("value_hash");
+            if (hash == null) {
+                return rs.getString("prop_value");
             }
-            return result;
-        }, profile);
+            // A value already fetched under an unchanged hash is carried over with its cached content.
+            LazyPropertyValue prior = previous.get(key);
+            return prior != null && prior.isLoaded() && hash.equals(prior.hash())
+                    ? prior
+                    : new LazyPropertyValue(key, rs.getLong("value_length"), hash, loader, onMismatch);
+        };
+    }
+
+    private Map<String, Object> extractProperties(ResultSet rs) throws SQLException {
+        SnapshotProperties.Builder result = SnapshotProperties.builder();
+        while (rs.next()) {
+            result.put(rs.getString("prop_key"), rs.getString("prop_value"));
+        }
+        return result.build();
+    }
+
+    private Instant toInstant(Timestamp ts) {
+        return ts == null ? Instant.EPOCH : ts.toInstant();
+    }
+
+    private <T> T query(String sql, ResultSetExtractor<T> extractor, Object... args) {
+        RefreshDeadline deadline = RefreshDeadline.current();
+        return jdbcTemplate.execute(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            if (fetchSize > 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            int timeoutSeconds = queryTimeoutSeconds(deadline);
+            if (timeoutSeconds > 0) {
+                ps.setQueryTimeout(timeoutSeconds);
+            }
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, (PreparedStatement ps) -> {
+            RefreshDeadline.Handle cancel = deadline.onExpiry(() -> cancelQuietly(ps));
+            try (ResultSet rs = ps.executeQuery()) {
+                return extractor.extractData(rs);
+            }
+            finally {
+                cancel.close();
+            }
+        });
+    }
+
+    private int queryTimeoutSeconds(RefreshDeadline deadline) {
+        Duration timeout = statementTimeout == null || statementTimeout.isZero() || statementTimeout.isNegative() ? null : statementTimeout;
+        if (deadline.isBounded()) {
+            Duration remaining = deadline.remaining();
+            timeout = timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+        }
+        if (timeout == null) {
+            return 0;
+        }
+        return (int) Math.max(1L, (timeout.toMillis() + 999) / 1000);
+    }
+
+    private static void cancelQuietly(PreparedStatement ps) {
+        try {
+            ps.cancel();
+        }
+        catch (SQLException ex) {
+            log.debug("Could not cancel config query after refresh deadline", ex);
+        }
+    }
+
+    private List<String> rankedProfiles(List<String> profiles) {
+        // A profile listed twice ranks by its last position, matching the per-profile putAll order.
+        LinkedHashSet<String> ranked = new LinkedHashSet<>();
+        for (String profile : profiles) {
+            if (profile != null) {
+                ranked.remove(profile);
+                ranked.add(profile);
+            }
+        }
+        return new ArrayList<>(ranked);
+    }
+
+    public record PropertyChanges(Map<String, Object> upserts, Set<String> removals) {
+    }
+
+    public record BucketRows(Map<String, Object> properties, Map<Integer, Set<String>> keysByBucket) {
+    }
+
+    @FunctionalInterface
+    private interface ValueReader {
+
+        Object read(ResultSet rs, String key) throws SQLException;
     }
 }
@@ -0,0 +1,183 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.dbconfig.core.ConfigVersion;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+public class DbConfigJdbcWriter {
+    private static final String PG_NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final DbConfigJdbcRepository repository;
+    private final DbConfigSqlStatements statements;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String notifyChannel;
+    private final int batchSize;
+
+    public DbConfigJdbcWriter(DbConfigJdbcRepository repository, JdbcConfigSourceProperties properties) {
+        this.repository = repository;
+        this.statements = repository.getStatements();
+        this.jdbcTemplate = repository.getJdbcTemplate();
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.notifyChannel = statements.getDialect() == DbConfigSqlDialect.POSTGRESQL && StringUtils.hasText(properties.getWriter().getNotifyChannel())
+                ? properties.getWriter().getNotifyChannel()
+                : null;
+        this.batchSize = Math.max(1, properties.getWriter().getBatchSize());
+    }
+
+    public WriteResult write(Collection<DbConfigChange> changes) {
+        // The last change for a (key, profile) pair wins, so one batch never touches a row twice.
+        Map<Map.Entry<String, String>, DbConfigChange> latest = new LinkedHashMap<>();
+        for (DbConfigChange change : changes) {
+            latest.put(new AbstractMap.SimpleImmutableEntry<>(change.key(), change.profile()), change);
+        }
+        if (latest.isEmpty()) {
+            return new WriteResult(0, 0, null);
+        }
+        List<DbConfigChange> nullProfileUpserts = new ArrayList<>();
+        List<DbConfigChange> profileUpserts = new ArrayList<>();
+        List<DbConfigChange> nullProfileDeletes = new ArrayList<>();
+        List<DbConfigChange> profileDeletes = new ArrayList<>();
+        for (DbConfigChange change : latest.values()) {
+            if (change.delete()) {
+                (change.profile() == null ? nullProfileDeletes : profileDeletes).add(change);
+            }
+            else {
+                (change.profile() == null ? nullProfileUpserts : profileUpserts).add(change);
+            }
+        }
+
+        return transactionTemplate.execute(status -> {
+            int upserted = upsert(nullProfileUpserts, true) + upsert(profileUpserts, false);
+            int deleted = delete(nullProfileDeletes, true) + delete(profileDeletes, false);
+            ConfigVersion version = repository.getCurrentVersion();
+            if (notifyChannel != null) {
+                // Delivered once, at commit; nothing is sent if the transaction rolls back.
+                jdbcTemplate.query(PG_NOTIFY, (RowCallbackHandler) rs -> { }, notifyChannel, notifyPayload(version));
+            }
+            return new WriteResult(upserted, deleted, version);
+        });
+    }
+
+    private int upsert(List<DbConfigChange> rows, boolean nullProfile) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(statements.updateValue(nullProfile), rows, batchSize, (ps, row) -> {
+            ps.setString(1, row.value());
+            ps.setString(2, row.key());
+            if (!nullProfile) {
+                ps.setString(3, row.profile());
+            }
+        });
+        List<DbConfigChange> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Some drivers, Oracle's among them, report SUCCESS_NO_INFO for every batched statement.
+                if (count == 0 || (count == Statement.SUCCESS_NO_INFO && !exists(rows.get(index), nullProfile))) {
+                    missing.add(rows.get(index));
+                }
+                index++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            insert(missing, nullProfile);
+        }
+        return rows.size();
+    }
+
+    // A concurrent writer may insert a row between our UPDATE missing it and our INSERT. Such rows are updated instead.
+    private void insert(List<DbConfigChange> rows, boolean nullProfile) {
+        int[][] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(statements.insertValue(), rows, batchSize, (ps, row) -> {
+                ps.setString(1, row.key());
+                ps.setObject(2, row.profile(), Types.VARCHAR);
+                ps.setString(3, row.value());
+            });
+        }
+        catch (DuplicateKeyException ex) {
+            // The failed batch leaves the transaction usable on every dialect without an insert conflict clause.
+            for (DbConfigChange row : rows) {
+                if (update(row, nullProfile) == 0) {
+                    jdbcTemplate.update(statements.insertValue(), row.key(), new SqlParameterValue(Types.VARCHAR, row.profile()), row.value());
+                }
+            }
+            return;
+        }
+        if (statements.getDialect().insertConflictClause().isEmpty()) {
+            return;
+        }
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // 0: ON CONFLICT skipped the row. SUCCESS_NO_INFO (reWriteBatchedInserts): unknown, so update to be sure.
+                if (count == 0 || count == Statement.SUCCESS_NO_INFO) {
+                    update(rows.get(index), nullProfile);
+                }
+                index++;
+            }
+        }
+    }
+
+    private int update(DbConfigChange row, boolean nullProfile) {
+        return nullProfile
+                ? jdbcTemplate.update(statements.updateValue(true), row.value(), row.key())
+                : jdbcTemplate.update(statements.updateValue(false), row.value(), row.key(), row.profile());
+    }
+
+    private boolean exists(DbConfigChange row, boolean nullProfile) {
+        Object[] args = nullProfile ? new Object[] {row.key()} : new Object[] {row.key(), row.profile()};
+        Integer count = jdbcTemplate.queryForObject(statements.rowExists(nullProfile), Integer.class, args);
+        return count != null && count > 0;
+    }
+
+    private int delete(List<DbConfigChange> rows, boolean nullProfile) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(statements.deleteRow(nullProfile), rows, batchSize, (ps, row) -> {
+            ps.setString(1, row.key());
+            if (!nullProfile) {
+                ps.setString(2, row.profile());
+            }
+        });
+        int deleted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                deleted += Math.max(0, count);
+            }
+        }
+        return deleted;
+    }
+
+    // Fingerprints are sent as-is. Listeners cannot order them against the profile-scoped fingerprint they applied,
+    // so in FINGERPRINT mode every notification triggers a refresh.
+    private String notifyPayload(ConfigVersion version) {
+        if (version.isSequenceBased()) {
+            return String.valueOf(version.sequenceValue());
+        }
+        if (version.fingerprint()) {
+            return version.value();
+        }
+        return version.instantValue() == null ? "" : version.instantValue().toString();
+    }
+
+    public record WriteResult(int upserted, int deleted, ConfigVersion version) {
+    }
+}
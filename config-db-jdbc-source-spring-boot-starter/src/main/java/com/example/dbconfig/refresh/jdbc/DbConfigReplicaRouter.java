@@ -0,0 +1,150 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import com.example.dbconfig.core.ConfigVersion;
+
+public class DbConfigReplicaRouter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(DbConfigReplicaRouter.class);
+    private static final boolean HIKARI_PRESENT = ClassUtils.isPresent("com.zaxxer.hikari.HikariDataSource", DbConfigReplicaRouter.class.getClassLoader());
+
+    private final DbConfigJdbcRepository primary;
+    private final DbConfigJdbcRepository replica;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration probeInterval;
+    private final Supplier<ConfigVersion> versionFloor;
+    private final Clock clock;
+    private volatile Probe lastProbe;
+
+    public DbConfigReplicaRouter(DbConfigJdbcRepository primary) {
+        this(primary, null, null, null, Duration.ZERO, Duration.ZERO, () -> null, Clock.systemUTC());
+    }
+
+    public DbConfigReplicaRouter(DbConfigJdbcRepository primary, DbConfigJdbcRepository replica, JdbcTemplate replicaJdbcTemplate,
+                                 String lagQuery, Duration maxLag, Duration probeInterval, Supplier<ConfigVersion> versionFloor, Clock clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag == null ? Duration.ZERO : maxLag;
+        this.probeInterval = probeInterval == null ? Duration.ZERO : probeInterval;
+        this.versionFloor = versionFloor == null ? () -> null : versionFloor;
+        this.clock = clock;
+    }
+
+    public static DbConfigReplicaRouter create(DbConfigJdbcRepository primary, JdbcConfigSourceProperties properties) {
+        return create(primary, properties, Duration.ZERO, () -> null);
+    }
+
+    /**
+     * @param probeInterval how long one lag probe result is reused, normally the refresh poll interval
+     * @param versionFloor last applied or notified version; a replica reporting anything older is bypassed
+     */
+    public static DbConfigReplicaRouter create(DbConfigJdbcRepository primary, JdbcConfigSourceProperties properties,
+                                               Duration probeInterval, Supplier<ConfigVersion> versionFloor) {
+        JdbcConfigSourceProperties.Replica replica = properties.getReplica();
+        if (!StringUtils.hasText(replica.getUrl())) {
+            return new DbConfigReplicaRouter(primary);
+        }
+        String lagQuery = StringUtils.hasText(replica.getLagQuery()) ? replica.getLagQuery() : primary.getStatements().getDialect().replicaLagQuery();
+        if (lagQuery == null) {
+            log.warn("No replica lag query for dialect {}; set dbconfig.source.jdbc.replica.lag-query. Config reads stay on the primary",
+                    primary.getStatements().getDialect());
+        }
+        DataSourceBuilder<?> builder = DataSourceBuilder.create()
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .driverClassName(replica.getDriverClassName());
+        // Same bounds as the dedicated config pool; a default Hikari pool would hold ten replica connections.
+        DataSource dataSource = HIKARI_PRESENT ? HikariDbConfigConnectionPool.createReplica(builder, properties.getPool()) : builder.build();
+        // No template-wide query timeout: the repository sets min(statement-timeout, remaining deadline) per statement.
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DbConfigJdbcRepository replicaRepository = new DbConfigJdbcRepository(jdbcTemplate, properties, primary.getStatements().getDialect());
+        replicaRepository.setStaleValueHandler(primary::onStaleValue);
+        return new DbConfigReplicaRouter(primary, replicaRepository, jdbcTemplate, lagQuery, replica.getMaxLag(), probeInterval, versionFloor, Clock.systemUTC());
+    }
+
+    public DbConfigJdbcRepository primary() {
+        return primary;
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    public DbConfigJdbcRepository forReads() {
+        if (replica == null || lagQuery == null) {
+            return primary;
+        }
+        Instant now = clock.instant();
+        Probe probe = lastProbe;
+        if (probe == null || !now.isBefore(probe.expiresAt())) {
+            probe = new Probe(probeReplica(), now.plus(probeInterval));
+            lastProbe = probe;
+        }
+        return probe.replicaUsable() ? replica : primary;
+    }
+
+    /**
+     * Returns the repository to read from, given the version the replica reported. Falls back to the
+     * primary when that version is older than {@code since} or the last applied or notified version,
+     * because acting on it would roll the application's config back.
+     */
+    public DbConfigJdbcRepository verifiedReads(DbConfigJdbcRepository repository, ConfigVersion reported, ConfigVersion since) {
+        if (repository == primary) {
+            return primary;
+        }
+        ConfigVersion floor = versionFloor.get();
+        // A floor of another kind (e.g. a timestamp NOTIFY payload against sequence versions) cannot be ordered and is skipped.
+        ConfigVersion required = since != null && (!since.isComparableTo(floor) || since.isNewerThan(floor)) ? since : floor;
+        if (required != null && required.isComparableTo(reported) && required.isNewerThan(reported)) {
+            log.debug("Config replica version {} is behind {}; reading from primary", reported.value(), required.value());
+            return primary;
+        }
+        return repository;
+    }
+
+    private boolean probeReplica() {
+        try {
+            Double lagSeconds = replica.queryForDouble(lagQuery);
+            if (lagSeconds != null && Duration.ofMillis((long) (lagSeconds * 1000)).compareTo(maxLag) <= 0) {
+                return true;
+            }
+            log.debug("Config replica lag {}s exceeds {}; reading from primary", lagSeconds, maxLag);
+        }
+        catch (RuntimeException ex) {
+            log.warn("Config replica lag probe failed; reading from primary", ex);
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (replicaJdbcTemplate != null && replicaJdbcTemplate.getDataSource() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            }
+            catch (Exception ex) {
+                log.warn("Could not close config replica data source", ex);
+            }
+        }
+    }
+
+    private record Probe(boolean replicaUsable, Instant expiresAt) {
+    }
+}
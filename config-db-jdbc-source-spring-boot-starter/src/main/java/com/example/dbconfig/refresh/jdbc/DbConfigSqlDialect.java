@@ -0,0 +1,135 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+public enum DbConfigSqlDialect {
+    POSTGRESQL(JdbcConfigSourceProperties.MergeMode.DISTINCT_ON, "FALSE", "TRUE"),
+    H2(JdbcConfigSourceProperties.MergeMode.WINDOW_FUNCTION, "FALSE", "TRUE"),
+    MYSQL(JdbcConfigSourceProperties.MergeMode.WINDOW_FUNCTION, "FALSE", "TRUE"),
+    ORACLE(JdbcConfigSourceProperties.MergeMode.WINDOW_FUNCTION, "0", "1"),
+    GENERIC(JdbcConfigSourceProperties.MergeMode.SINGLE_QUERY, "FALSE", "TRUE");
+
+    private static final Logger log = LoggerFactory.getLogger(DbConfigSqlDialect.class);
+
+    private final JdbcConfigSourceProperties.MergeMode preferredMergeMode;
+    private final String falseLiteral;
+    private final String trueLiteral;
+
+    DbConfigSqlDialect(JdbcConfigSourceProperties.MergeMode preferredMergeMode, String falseLiteral, String trueLiteral) {
+        this.preferredMergeMode = preferredMergeMode;
+        this.falseLiteral = falseLiteral;
+        this.trueLiteral = trueLiteral;
+    }
+
+    public JdbcConfigSourceProperties.MergeMode getPreferredMergeMode() {
+        return preferredMergeMode;
+    }
+
+    public String getFalseLiteral() {
+        return falseLiteral;
+    }
+
+    public String getTrueLiteral() {
+        return trueLiteral;
+    }
+
+    /**
+     * Timestamp written to {@code updated_at} by the writer. PostgreSQL's {@code CURRENT_TIMESTAMP} is the transaction
+     * start, which puts rows of a long batch far behind their commit and outside the delta lookback.
+     */
+    public String currentTimestamp() {
+        return this == POSTGRESQL ? "clock_timestamp()" : "CURRENT_TIMESTAMP";
+    }
+
+    /**
+     * Suffix that turns a unique-key conflict on insert into a skipped row. Only PostgreSQL needs it: a failed
+     * statement aborts its transaction, so the writer cannot catch the duplicate key and carry on as elsewhere.
+     */
+    public String insertConflictClause() {
+        return this == POSTGRESQL ? " ON CONFLICT DO NOTHING" : "";
+    }
+
+    public String rowDigestSum(String key, String profile, String value) {
+        return switch (this) {
+            case POSTGRESQL -> "SUM(('x' || LEFT(MD5(" + key + " || CHR(31) || COALESCE(" + profile + ", '') || CHR(31) || COALESCE("
+                    + value + ", '')), 15))::bit(60)::bigint)";
+            case H2 -> "SUM(ORA_HASH(" + key + " || CHR(31) || COALESCE(" + profile + ", '') || CHR(31) || COALESCE(" + value + ", '')))";
+            case MYSQL -> "SUM(CAST(CONV(LEFT(MD5(CONCAT_WS(CHAR(31), " + key + ", COALESCE(" + profile + ", ''), COALESCE(" + value
+                    + ", ''))), 15), 16, 10) AS UNSIGNED))";
+            case ORACLE -> "SUM(ORA_HASH(" + key + " || CHR(31) || " + profile + " || CHR(31) || " + value + "))";
+            case GENERIC -> null;
+        };
+    }
+
+    public String keyBucket(String key, int buckets) {
+        return switch (this) {
+            case POSTGRESQL -> "MOD(('x' || LEFT(MD5(" + key + "), 7))::bit(28)::int, " + buckets + ")";
+            case H2, ORACLE -> "ORA_HASH(" + key + ", " + (buckets - 1) + ")";
+            case MYSQL -> "MOD(CONV(LEFT(MD5(" + key + "), 7), 16, 10), " + buckets + ")";
+            case GENERIC -> null;
+        };
+    }
+
+    public String valueHash(String value) {
+        return switch (this) {
+            case POSTGRESQL, MYSQL -> "MD5(" + value + ")";
+            case H2 -> "RAWTOHEX(HASH('MD5', " + value + "))";
+            case ORACLE -> "RAWTOHEX(STANDARD_HASH(" + value + ", 'MD5'))";
+            case GENERIC -> null;
+        };
+    }
+
+    public String replicaLagQuery() {
+        if (this == POSTGRESQL) {
+            return "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+                    + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+        }
+        return null;
+    }
+
+    public static DbConfigSqlDialect detect(DataSource dataSource) {
+        if (dataSource == null) {
+            return GENERIC;
+        }
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, (DatabaseMetaData metaData) -> fromMetaData(
+                    metaData.getDatabaseProductName(),
+                    metaData.getDatabaseProductVersion(),
+                    metaData.getDatabaseMajorVersion(),
+                    metaData.getDatabaseMinorVersion()));
+        }
+        catch (MetaDataAccessException ex) {
+            log.warn("Could not detect database dialect for DB config source; using generic SQL", ex);
+            return GENERIC;
+        }
+    }
+
+    static DbConfigSqlDialect fromMetaData(String productName, String productVersion, int majorVersion, int minorVersion) {
+        String product = productName == null ? "" : productName.toLowerCase(Locale.ROOT);
+        String version = productVersion == null ? "" : productVersion.toLowerCase(Locale.ROOT);
+        if (product.contains("postgresql")) {
+            return POSTGRESQL;
+        }
+        if (product.equals("h2")) {
+            return H2;
+        }
+        if (product.contains("oracle")) {
+            return ORACLE;
+        }
+        if (product.contains("mariadb") || version.contains("mariadb")) {
+            return (majorVersion > 10 || (majorVersion == 10 && minorVersion >= 2)) ? MYSQL : GENERIC;
+        }
+        if (product.contains("mysql")) {
+            return majorVersion >= 8 ? MYSQL : GENERIC;
+        }
+        return GENERIC;
+    }
+}
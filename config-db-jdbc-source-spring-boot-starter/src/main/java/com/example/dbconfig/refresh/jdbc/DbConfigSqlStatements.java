@@ -0,0 +1,460 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.util.StringUtils;
+
+public class DbConfigSqlStatements {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+
+    private final DbConfigSqlDialect dialect;
+    private final JdbcConfigSourceProperties.MergeMode mergeMode;
+    private final boolean sequenceVersioned;
+    private final boolean fingerprintVersioned;
+    private final String table;
+    private final String key;
+    private final String profile;
+    private final String value;
+    private final String tombstone;
+    private final String tenant;
+    private final String sharedRows;
+    private final String keyScopeCondition;
+    private final String keyScope;
+    private final int lazyThreshold;
+    private final String loadColumns;
+    private final String lazyColumns;
+    private final String lookupHashColumn;
+    private final String changedSince;
+    private final String layerVersionColumn;
+    private final String liveRowsCondition;
+    private final String liveRows;
+    private final String rowDigestSum;
+    private final int bucketCount;
+    private final String keyBucket;
+    private final String lastUpdated;
+    private final String sequenceVersion;
+    private final String fingerprintAll;
+    private final String updatedAt;
+    private final String nullLayer;
+    private final String profileLayer;
+    private final String updateValue;
+    private final String updateNullProfileValue;
+    private final String insertValue;
+    private final String rowExists;
+    private final String nullProfileRowExists;
+    private final String deleteRow;
+    private final String deleteNullProfileRow;
+    private final Map<Integer, String> mergedByProfileCount = new ConcurrentHashMap<>();
+    private final Map<Integer, String> textMergedByProfileCount = new ConcurrentHashMap<>();
+    private final Map<Integer, String> changedByProfileCount = new ConcurrentHashMap<>();
+    private final Map<Integer, String> versionVectorByProfileCount = new ConcurrentHashMap<>();
+    private final Map<Integer, String> fingerprintByProfileCount = new ConcurrentHashMap<>();
+    private final Map<Integer, String> bucketDigestsByProfileCount = new ConcurrentHashMap<>();
+    private final Map<String, String> bucketRowsByShape = new ConcurrentHashMap<>();
+    private final Map<Integer, String> bucketKeysByProfileCount = new ConcurrentHashMap<>();
+    private final Map<Integer, String> tenantVersionsByProfileCount = new ConcurrentHashMap<>();
+    private final Map<String, String> tenantRowsByShape = new ConcurrentHashMap<>();
+    private final Map<Integer, String> valueLookupByProfileCount = new ConcurrentHashMap<>();
+
+    public DbConfigSqlStatements(JdbcConfigSourceProperties properties, DbConfigSqlDialect dialect) {
+        JdbcConfigSourceProperties.Columns columns = properties.getColumn();
+        JdbcConfigSourceProperties.Version version = properties.getVersion();
+        JdbcConfigSourceProperties.Delta delta = properties.getDelta();
+        this.dialect = dialect == null ? DbConfigSqlDialect.GENERIC : dialect;
+        this.mergeMode = properties.getMergeMode() == null || properties.getMergeMode() == JdbcConfigSourceProperties.MergeMode.AUTO
+                ? this.dialect.getPreferredMergeMode()
+                : properties.getMergeMode();
+        this.sequenceVersioned = version.getStrategy() == JdbcConfigSourceProperties.VersionStrategy.SEQUENCE;
+        this.fingerprintVersioned = version.getStrategy() == JdbcConfigSourceProperties.VersionStrategy.FINGERPRINT;
+        this.table = identifier("table", properties.getTable());
+        this.key = identifier("column.key", columns.getKey());
+        this.profile = identifier("column.profile", columns.getProfile());
+        this.value = identifier("column.value", columns.getValue());
+        this.updatedAt = identifier("column.updated-at", columns.getUpdatedAt());
+        this.tombstone = delta.isEnabled() && StringUtils.hasText(delta.getTombstoneColumn())
+                ? identifier("delta.tombstone-column", delta.getTombstoneColumn())
+                : null;
+        this.tenant = StringUtils.hasText(columns.getTenant()) ? identifier("column.tenant", columns.getTenant()) : null;
+        this.sharedRows = tenant == null ? "" : " AND " + tenant + " IS NULL";
+        this.keyScopeCondition = renderKeyScope(properties.getIncludePrefixes(), properties.getExcludePrefixes());
+        this.keyScope = keyScopeCondition == null ? "" : " AND " + keyScopeCondition;
+        String valueHash = this.dialect.valueHash(value);
+        JdbcConfigSourceProperties.LazyValues lazyValues = properties.getLazyValues();
+        this.lazyThreshold = lazyValues.isEnabled() && valueHash != null ? Math.max(0, lazyValues.getThreshold()) : -1;
+        this.loadColumns = lazyThreshold < 0
+                ? value + " AS prop_value"
+                : "CASE WHEN LENGTH(" + value + ") > " + lazyThreshold + " THEN NULL ELSE " + value + " END AS prop_value, LENGTH(" + value
+                        + ") AS value_length, CASE WHEN LENGTH(" + value + ") > " + lazyThreshold + " THEN " + valueHash + " END AS value_hash";
+        this.lazyColumns = lazyThreshold < 0 ? "" : ", value_length, value_hash";
+        this.lookupHashColumn = lazyThreshold < 0 ? "" : ", " + valueHash + " AS value_hash";
+        this.layerVersionColumn = sequenceVersioned ? identifier("version.row-column", version.getRowColumn()) : updatedAt;
+        this.changedSince = layerVersionColumn + " > ?";
+        this.liveRowsCondition = tombstone == null ? null : tombstone + " = " + this.dialect.getFalseLiteral();
+        this.liveRows = liveRowsCondition == null ? "" : " AND " + liveRowsCondition;
+        this.rowDigestSum = this.dialect.rowDigestSum(key, profile, value);
+        if (delta.getBuckets() < 1) {
+            throw new IllegalArgumentException("dbconfig.source.jdbc.delta.buckets must be positive: " + delta.getBuckets());
+        }
+        this.bucketCount = delta.getBuckets();
+        this.keyBucket = this.dialect.keyBucket(key, bucketCount);
+        // Tenant rows are versioned by tenantVersions(); keeping them out of the shared version stops a tenant edit
+        // from forcing a fleet-wide reload.
+        StringJoiner sharedScope = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (tenant != null) {
+            sharedScope.add(tenant + " IS NULL");
+        }
+        if (keyScopeCondition != null) {
+            sharedScope.add(keyScopeCondition);
+        }
+        this.lastUpdated = "SELECT MAX(" + updatedAt + ") FROM " + table + sharedScope;
+        this.sequenceVersion = "SELECT MAX(" + identifier("version.column", version.getColumn()) + ") FROM "
+                + identifier("version.table", version.getTable());
+        this.fingerprintAll = renderFingerprint(null);
+        this.nullLayer = selectKeyValue() + " WHERE " + profile + " IS NULL" + sharedRows + keyScope + liveRows;
+        this.profileLayer = selectKeyValue() + " WHERE " + profile + " = ?" + sharedRows + keyScope + liveRows;
+        String revive = tombstone == null ? "" : ", " + tombstone + " = " + this.dialect.getFalseLiteral();
+        String now = this.dialect.currentTimestamp();
+        String update = "UPDATE " + table + " SET " + value + " = ?, " + updatedAt + " = " + now + revive + " WHERE " + key + " = ? AND ";
+        this.updateValue = update + profile + " = ?" + sharedRows;
+        this.updateNullProfileValue = update + profile + " IS NULL" + sharedRows;
+        this.insertValue = "INSERT INTO " + table + " (" + key + ", " + profile + ", " + value + ", " + updatedAt
+                + (tombstone == null ? "" : ", " + tombstone) + ") VALUES (?, ?, ?, " + now
+                + (tombstone == null ? "" : ", " + this.dialect.getFalseLiteral()) + ")" + this.dialect.insertConflictClause();
+        String exists = "SELECT COUNT(*) FROM " + table + " WHERE " + key + " = ? AND ";
+        this.rowExists = exists + profile + " = ?" + sharedRows;
+        this.nullProfileRowExists = exists + profile + " IS NULL" + sharedRows;
+        String delete = tombstone == null
+                ? "DELETE FROM " + table + " WHERE " + key + " = ? AND "
+                : "UPDATE " + table + " SET " + tombstone + " = " + this.dialect.getTrueLiteral() + ", " + updatedAt + " = " + now + " WHERE " + key + " = ? AND ";
+        this.deleteRow = delete + profile + " = ?" + sharedRows;
+        this.deleteNullProfileRow = delete + profile + " IS NULL" + sharedRows;
+    }
+
+    public DbConfigSqlDialect getDialect() {
+        return dialect;
+    }
+
+    public JdbcConfigSourceProperties.MergeMode getMergeMode() {
+        return mergeMode;
+    }
+
+    public boolean isSequenceVersioned() {
+        return sequenceVersioned;
+    }
+
+    public boolean isFingerprintVersioned() {
+        return fingerprintVersioned;
+    }
+
+    public boolean hasFingerprintDigest() {
+        return rowDigestSum != null;
+    }
+
+    public boolean supportsBucketSync() {
+        return keyBucket != null && rowDigestSum != null;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public boolean hasLazyValues() {
+        return lazyThreshold >= 0;
+    }
+
+    public boolean hasTenants() {
+        return tenant != null;
+    }
+
+    public boolean hasTombstones() {
+        return tombstone != null;
+    }
+
+    public String lastUpdated() {
+        return lastUpdated;
+    }
+
+    public String sequenceVersion() {
+        return sequenceVersion;
+    }
+
+    public String nullLayer() {
+        return nullLayer;
+    }
+
+    public String profileLayer() {
+        return profileLayer;
+    }
+
+    public String updateValue(boolean nullProfile) {
+        return nullProfile ? updateNullProfileValue : updateValue;
+    }
+
+    public String insertValue() {
+        return insertValue;
+    }
+
+    public String rowExists(boolean nullProfile) {
+        return nullProfile ? nullProfileRowExists : rowExists;
+    }
+
+    public String deleteRow(boolean nullProfile) {
+        return nullProfile ? deleteNullProfileRow : deleteRow;
+    }
+
+    public String mergedLoad(int profileCount) {
+        if (profileCount == 0) {
+            return nullLayer;
+        }
+        return mergedByProfileCount.computeIfAbsent(profileCount, this::renderMergedLoad);
+    }
+
+    /**
+     * {@link #mergedLoad} with key and value cast to {@code text}, for PostgreSQL {@code COPY ... (FORMAT binary)}: binary
+     * COPY sends each column in its type's own wire format (jsonb adds a version byte), so only text decodes as UTF-8.
+     */
+    public String textMergedLoad(int profileCount) {
+        return textMergedByProfileCount.computeIfAbsent(profileCount, count -> count == 0
+                ? "SELECT " + key + "::text AS prop_key, " + value + "::text AS prop_value FROM " + table + " WHERE " + profile + " IS NULL" + sharedRows + keyScope + liveRows
+                : renderMergedLoad(count, key + "::text", value + "::text AS prop_value", ""));
+    }
+
+    public String changedSince(int profileCount) {
+        return changedByProfileCount.computeIfAbsent(profileCount, this::renderChangedSince);
+    }
+
+    public String fingerprint() {
+        return fingerprintAll;
+    }
+
+    public String fingerprint(int profileCount) {
+        return fingerprintByProfileCount.computeIfAbsent(profileCount, this::renderFingerprint);
+    }
+
+    public String versionVector(int profileCount) {
+        return versionVectorByProfileCount.computeIfAbsent(profileCount, this::renderVersionVector);
+    }
+
+    public String bucketDigests(int profileCount) {
+        return bucketDigestsByProfileCount.computeIfAbsent(profileCount, this::renderBucketDigests);
+    }
+
+    public String bucketKeys(int profileCount) {
+        return bucketKeysByProfileCount.computeIfAbsent(profileCount, count -> "SELECT DISTINCT " + key + " AS prop_key, " + keyBucket
+                + " AS bucket FROM " + table + " WHERE " + layersPredicate(count) + liveRows);
+    }
+
+    public String bucketRows(int profileCount, int selectedBuckets) {
+        return bucketRowsByShape.computeIfAbsent(profileCount + ":" + selectedBuckets,
+                shape -> renderBucketRows(profileCount, selectedBuckets));
+    }
+
+    public String valueLookup(int profileCount) {
+        return valueLookupByProfileCount.computeIfAbsent(profileCount, count -> "SELECT " + value + " AS prop_value" + lookupHashColumn + " FROM " + table
+                + " WHERE " + key + " = ? AND " + layersPredicate(count) + liveRows + (count == 0 ? "" : " ORDER BY " + rankExpression(count) + " DESC"));
+    }
+
+    public String tenantVersions(int profileCount) {
+        return tenantVersionsByProfileCount.computeIfAbsent(profileCount, this::renderTenantVersions);
+    }
+
+    public String tenantRows(int profileCount, int tenantCount) {
+        return tenantRowsByShape.computeIfAbsent(profileCount + ":" + tenantCount, shape -> renderTenantRows(profileCount, tenantCount));
+    }
+
+    private String renderTenantVersions(int profileCount) {
+        requireTenants();
+        return "SELECT " + tenant + " AS tenant_id, COUNT(*) AS row_count, MAX(" + updatedAt + ") AS max_updated FROM " + table
+                + " WHERE " + profileLayers(profileCount) + keyScope + " AND " + tenant + " IS NOT NULL GROUP BY " + tenant;
+    }
+
+    private String renderTenantRows(int profileCount, int tenantCount) {
+        requireTenants();
+        String tenants = tenantCount == 0 ? tenant + " IS NOT NULL" : tenant + " IN (" + placeholders(tenantCount) + ")";
+        return "SELECT " + tenant + " AS tenant_id, " + key + " AS prop_key, " + value + " AS prop_value FROM " + table
+                + " WHERE " + profileLayers(profileCount) + keyScope + " AND " + tenants + liveRows
+                + (profileCount == 0 ? "" : " ORDER BY " + rankExpression(profileCount));
+    }
+
+    private void requireTenants() {
+        if (tenant == null) {
+            throw new IllegalStateException("dbconfig.source.jdbc.column.tenant is not configured");
+        }
+    }
+
+    public String inline(String sql, List<?> args) {
+        // For paths without bind parameters, such as PostgreSQL COPY. Only '?' outside quoted literals are placeholders.
+        // Arguments become E'' literals so backslashes cannot end the literal even with standard_conforming_strings=off.
+        StringBuilder inlined = new StringBuilder(sql.length() + args.size() * 16);
+        boolean quoted = false;
+        int next = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                if (next >= args.size()) {
+                    throw new IllegalArgumentException("Not enough arguments to inline into: " + sql);
+                }
+                inlined.append(stringLiteral(args.get(next++)));
+            }
+            else {
+                inlined.append(c);
+            }
+        }
+        if (next != args.size()) {
+            throw new IllegalArgumentException("Too many arguments to inline into: " + sql);
+        }
+        return inlined.toString();
+    }
+
+    private static String stringLiteral(Object value) {
+        return value == null ? "NULL" : "E'" + String.valueOf(value).replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    private String renderBucketDigests(int profileCount) {
+        return "SELECT " + keyBucket + " AS bucket, COUNT(*) AS row_count, " + rowDigestSum + " AS digest FROM " + table
+                + " WHERE " + layersPredicate(profileCount) + liveRows + " GROUP BY " + keyBucket;
+    }
+
+    private String renderBucketRows(int profileCount, int selectedBuckets) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(key).append(" AS prop_key, ").append(loadColumns).append(", ")
+                .append(keyBucket).append(" AS bucket FROM ").append(table)
+                .append(" WHERE ").append(layersPredicate(profileCount)).append(liveRows);
+        if (selectedBuckets > 0) {
+            sql.append(" AND ").append(keyBucket).append(" IN (").append(placeholders(selectedBuckets)).append(")");
+        }
+        if (profileCount > 0) {
+            sql.append(" ORDER BY ").append(rankExpression(profileCount));
+        }
+        return sql.toString();
+    }
+
+    private String renderFingerprint(Integer profileCount) {
+        String where;
+        if (profileCount != null) {
+            where = " WHERE " + layersPredicate(profileCount) + liveRows;
+        }
+        else {
+            StringJoiner conditions = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+            if (tenant != null) {
+                conditions.add(tenant + " IS NULL");
+            }
+            if (keyScopeCondition != null) {
+                conditions.add(keyScopeCondition);
+            }
+            if (liveRowsCondition != null) {
+                conditions.add(liveRowsCondition);
+            }
+            where = conditions.toString();
+        }
+        return "SELECT COUNT(*) AS row_count, MAX(" + updatedAt + ") AS max_updated"
+                + (rowDigestSum == null ? "" : ", " + rowDigestSum + " AS digest") + " FROM " + table + where;
+    }
+
+    // In fingerprint mode each layer also carries its row count and digest, so a delete below the layer's MAX still
+    // changes the vector.
+    private String renderVersionVector(int profileCount) {
+        String fingerprintColumns = !fingerprintVersioned ? ""
+                : ", COUNT(*) AS row_count" + (rowDigestSum == null ? "" : ", " + rowDigestSum + " AS digest");
+        return "SELECT " + profile + " AS layer_profile, MAX(" + layerVersionColumn + ") AS layer_version" + fingerprintColumns + " FROM " + table
+                + " WHERE " + layersPredicate(profileCount) + " GROUP BY " + profile;
+    }
+
+    private String renderMergedLoad(int profileCount) {
+        return renderMergedLoad(profileCount, key, loadColumns, lazyColumns);
+    }
+
+    private String renderMergedLoad(int profileCount, String keyColumn, String columns, String extraColumns) {
+        String rank = rankExpression(profileCount);
+        String where = layersPredicate(profileCount) + liveRows;
+        return switch (mergeMode) {
+            case DISTINCT_ON -> "SELECT DISTINCT ON (" + key + ") " + keyColumn + " AS prop_key, " + columns + " FROM " + table
+                    + " WHERE " + where + " ORDER BY " + key + ", " + rank + " DESC";
+            case WINDOW_FUNCTION -> "SELECT prop_key, prop_value" + extraColumns + " FROM (SELECT " + keyColumn + " AS prop_key, " + columns + ", ROW_NUMBER() OVER (PARTITION BY "
+                    + key + " ORDER BY " + rank + " DESC) AS layer_rank FROM " + table + " WHERE " + where + ") winners WHERE layer_rank = 1";
+            default -> "SELECT " + keyColumn + " AS prop_key, " + columns + " FROM " + table + " WHERE " + where + " ORDER BY " + rank;
+        };
+    }
+
+    private String renderChangedSince(int profileCount) {
+        String deleted = tombstone == null ? "" : ", " + tombstone + " AS tombstone";
+        return "SELECT " + key + " AS prop_key, " + loadColumns + deleted + " FROM " + table
+                + " WHERE " + layersPredicate(profileCount)
+                + " AND " + key + " IN (SELECT " + key + " FROM " + table + " WHERE " + changedSince + ")"
+                + (profileCount == 0 ? "" : " ORDER BY " + rankExpression(profileCount));
+    }
+
+    private String selectKeyValue() {
+        return "SELECT " + key + " AS prop_key, " + loadColumns + " FROM " + table;
+    }
+
+    private String rankExpression(int profileCount) {
+        StringBuilder sql = new StringBuilder("CASE ").append(profile);
+        for (int i = 0; i < profileCount; i++) {
+            sql.append(" WHEN ? THEN ").append(i + 1);
+        }
+        return sql.append(" ELSE 0 END").toString();
+    }
+
+    private String layersPredicate(int profileCount) {
+        return profileLayers(profileCount) + sharedRows + keyScope;
+    }
+
+    private String renderKeyScope(List<String> includePrefixes, List<String> excludePrefixes) {
+        StringJoiner scope = new StringJoiner(" AND ").setEmptyValue("");
+        List<String> includes = nonBlank(includePrefixes);
+        if (!includes.isEmpty()) {
+            StringJoiner anyOf = new StringJoiner(" OR ", "(", ")");
+            includes.forEach(prefix -> anyOf.add(key + " LIKE " + likePrefix(prefix)));
+            scope.add(anyOf.toString());
+        }
+        nonBlank(excludePrefixes).forEach(prefix -> scope.add(key + " NOT LIKE " + likePrefix(prefix)));
+        String rendered = scope.toString();
+        return rendered.isEmpty() ? null : rendered;
+    }
+
+    private static List<String> nonBlank(List<String> values) {
+        return values == null ? List.of() : values.stream().filter(StringUtils::hasText).toList();
+    }
+
+    private static String likePrefix(String prefix) {
+        // Rendered as a literal so the predicate stays sargable; '!' is a portable LIKE escape (backslash is not, on MySQL).
+        StringBuilder escaped = new StringBuilder("'");
+        for (char c : prefix.toCharArray()) {
+            if (c == '!' || c == '%' || c == '_') {
+                escaped.append('!');
+            }
+            escaped.append(c == '\'' ? "''" : String.valueOf(c));
+        }
+        return escaped.append("%' ESCAPE '!'").toString();
+    }
+
+    private String profileLayers(int profileCount) {
+        if (profileCount == 0) {
+            return profile + " IS NULL";
+        }
+        return "(" + profile + " IS NULL OR " + profile + " IN (" + placeholders(profileCount) + "))";
+    }
+
+    private static String placeholders(int count) {
+        StringJoiner placeholders = new StringJoiner(", ");
+        for (int i = 0; i < count; i++) {
+            placeholders.add("?");
+        }
+        return placeholders.toString();
+    }
+
+    private static String identifier(String property, String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("dbconfig.source.jdbc." + property + " is not a valid SQL identifier: " + name);
+        }
+        return name;
+    }
+}
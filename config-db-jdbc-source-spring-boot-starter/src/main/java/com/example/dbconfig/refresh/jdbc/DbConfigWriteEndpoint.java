@@ -0,0 +1,38 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "dbconfigwrite")
+public class DbConfigWriteEndpoint {
+
+    private final DbConfigJdbcWriter writer;
+
+    public DbConfigWriteEndpoint(DbConfigJdbcWriter writer) {
+        this.writer = writer;
+    }
+
+    @WriteOperation
+    public Map<String, Object> write(@Nullable String profile, @Nullable Map<String, Object> upserts, @Nullable List<String> deletes) {
+        List<DbConfigChange> changes = new ArrayList<>();
+        if (upserts != null) {
+            upserts.forEach((key, value) -> changes.add(DbConfigChange.put(key, profile, value == null ? null : String.valueOf(value))));
+        }
+        if (deletes != null) {
+            deletes.forEach(key -> changes.add(DbConfigChange.delete(key, profile)));
+        }
+        DbConfigJdbcWriter.WriteResult result = writer.write(changes);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("profile", profile);
+        body.put("upserted", result.upserted());
+        body.put("deleted", result.deleted());
+        body.put("newVersion", result.version() == null ? null : result.version().value());
+        return body;
+    }
+}
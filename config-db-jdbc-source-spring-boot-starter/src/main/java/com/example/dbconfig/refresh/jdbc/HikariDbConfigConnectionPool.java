@@ -0,0 +1,75 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import javax.sql.DataSource;
+
+import com.example.dbconfig.refresh.DbConfigConnectionPool;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+public class HikariDbConfigConnectionPool implements DbConfigConnectionPool, AutoCloseable {
+    private final HikariDataSource dataSource;
+
+    public HikariDbConfigConnectionPool(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public static HikariDbConfigConnectionPool create(DataSourceProperties dataSourceProperties, JdbcConfigSourceProperties.Pool pool) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configure(dataSource, pool, pool.getName());
+        return new HikariDbConfigConnectionPool(dataSource);
+    }
+
+    static HikariDataSource createReplica(DataSourceBuilder<?> builder, JdbcConfigSourceProperties.Pool pool) {
+        HikariDataSource dataSource = builder.type(HikariDataSource.class).build();
+        configure(dataSource, pool, pool.getName() + "-replica");
+        return dataSource;
+    }
+
+    private static void configure(HikariDataSource dataSource, JdbcConfigSourceProperties.Pool pool, String poolName) {
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(pool.getMaxSize());
+        dataSource.setMinimumIdle(pool.getMinIdle());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+        dataSource.setIdleTimeout(pool.getIdleTimeout().toMillis());
+    }
+
+    @Override
+    public String getPoolName() {
+        return dataSource.getPoolName();
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    @Override
+    public int getPendingThreads() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -1,24 +1,166 @@
 package com.example.dbconfig.refresh.jdbc;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigDelta;
 import com.example.dbconfig.core.ConfigSnapshot;
 import com.example.dbconfig.core.ConfigSnapshotProvider;
 import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.ConfigVersionVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
 
 public class JdbcConfigSnapshotProvider implements ConfigSnapshotProvider {
-    private final DbConfigJdbcRepository repository;
-    public JdbcConfigSnapshotProvider(DbConfigJdbcRepository repository) { this.repository = repository; }
+    private static final Logger log = LoggerFactory.getLogger(JdbcConfigSnapshotProvider.class);
+    private final DbConfigReplicaRouter router;
+    private final JdbcConfigSourceProperties.Delta delta;
+    private final boolean perProfileVersions;
+    private final boolean bucketSync;
+    private volatile BucketState bucketState;
+    private final StructuredValueFlattener flattener;
+    public JdbcConfigSnapshotProvider(DbConfigJdbcRepository repository) { this(repository, new JdbcConfigSourceProperties()); }
+    public JdbcConfigSnapshotProvider(DbConfigJdbcRepository repository, JdbcConfigSourceProperties properties) { this(new DbConfigReplicaRouter(repository), properties); }
+    public JdbcConfigSnapshotProvider(DbConfigReplicaRouter router, JdbcConfigSourceProperties properties) {
+        this.router = router;
+        this.delta = properties.getDelta();
+        this.perProfileVersions = properties.getVersion().isPerProfile();
+        StructuredValueFlattener structured = new StructuredValueFlattener(properties.getStructured());
+        this.flattener = structured.isEnabled() ? structured : null;
+        this.bucketSync = delta.isEnabled() && delta.getStrategy() == JdbcConfigSourceProperties.DeltaStrategy.MERKLE_BUCKETS
+                && router.primary().getStatements().supportsBucketSync();
+        if (delta.isEnabled() && !bucketSync && !StringUtils.hasText(delta.getTombstoneColumn())) {
+            log.warn("Delta refresh is enabled without dbconfig.source.jdbc.delta.tombstone-column; hard-deleted rows stay in the"
+                    + " property source until the next full reload");
+        }
+    }
     @Override
     public Optional<ConfigVersion> fetchVersion() {
-        Instant instant = repository.getLastUpdated();
-        return Optional.of(ConfigVersion.ofInstant(instant));
+        DbConfigJdbcRepository repository = router.forReads();
+        ConfigVersion version = repository.getCurrentVersion();
+        DbConfigJdbcRepository verified = router.verifiedReads(repository, version, null);
+        return Optional.of(verified == repository ? version : verified.getCurrentVersion());
+    }
+    @Override
+    public Optional<ConfigVersion> fetchVersion(ActiveProfiles profiles) {
+        return Optional.of(read(profiles, null).version());
+    }
+    @Override
+    public Optional<ConfigVersionVector> fetchVersionVector(ActiveProfiles profiles) {
+        if (!perProfileVersions) {
+            return Optional.empty();
+        }
+        DbConfigJdbcRepository repository = router.forReads();
+        ConfigVersionVector vector = repository.getVersionVector(profiles.values());
+        DbConfigJdbcRepository verified = router.verifiedReads(repository, vector.latest(), null);
+        return Optional.of(verified == repository ? vector : verified.getVersionVector(profiles.values()));
     }
     @Override
     public ConfigSnapshot fetchSnapshot(ActiveProfiles profiles) {
-        Instant version = repository.getLastUpdated();
-        return new ConfigSnapshot(repository.loadMergedForProfiles(profiles.values()), ConfigVersion.ofInstant(version), Instant.now(), profiles.values());
+        VersionedRead read = read(profiles, null);
+        DbConfigJdbcRepository repository = read.repository();
+        ConfigVersion version = read.version();
+        if (bucketSync) {
+            // Digests are read before the rows, so a concurrent write only shows up as one extra mismatching bucket next time.
+            // The values come from the regular merged load (merge mode, lazy values, bulk loader); only keys are bucketed.
+            Map<Integer, String> digests = repository.loadBucketDigests(profiles.values());
+            Map<Integer, Set<String>> keysByBucket = repository.loadBucketKeys(profiles.values());
+            bucketState = new BucketState(profiles.values(), digests, keysByBucket);
+        }
+        else {
+            bucketState = null;
+        }
+        return new ConfigSnapshot(flatten(repository.loadMergedForProfiles(profiles.values())), version, Instant.now(), profiles.values());
+    }
+    @Override
+    public Optional<ConfigDelta> fetchDelta(ActiveProfiles profiles, ConfigVersion since) {
+        if (bucketSync) {
+            return fetchBucketDelta(read(profiles, since), profiles);
+        }
+        if (!delta.isEnabled() || !router.primary().supportsDeltaFrom(since)) {
+            return Optional.empty();
+        }
+        VersionedRead read = read(profiles, since);
+        DbConfigJdbcRepository repository = read.repository();
+        ConfigVersion version = read.version();
+        if (!version.differsFrom(since)) {
+            return Optional.of(ConfigDelta.unchanged(since, Instant.now()));
+        }
+        if (!version.isNewerThan(since)) {
+            return Optional.empty();
+        }
+        DbConfigJdbcRepository.PropertyChanges changes = repository.loadChangedForProfiles(profiles.values(), since);
+        return Optional.of(flatten(new ConfigDelta(changes.upserts(), changes.removals(), version, Instant.now())));
+    }
+    private Optional<ConfigDelta> fetchBucketDelta(VersionedRead read, ActiveProfiles profiles) {
+        BucketState state = bucketState;
+        if (state == null || !state.profiles().equals(profiles.values())) {
+            return Optional.empty();
+        }
+        DbConfigJdbcRepository repository = read.repository();
+        ConfigVersion version = read.version();
+        Map<Integer, String> digests = repository.loadBucketDigests(profiles.values());
+        Set<Integer> mismatched = new TreeSet<>();
+        for (int bucket = 0; bucket < repository.getStatements().getBucketCount(); bucket++) {
+            if (!Objects.equals(digests.get(bucket), state.digests().get(bucket))) {
+                mismatched.add(bucket);
+            }
+        }
+        if (mismatched.isEmpty()) {
+            return Optional.of(ConfigDelta.unchanged(version, Instant.now()));
+        }
+        if (mismatched.size() * 2 > repository.getStatements().getBucketCount()) {
+            return Optional.empty();
+        }
+
+        DbConfigJdbcRepository.BucketRows rows = repository.loadBuckets(profiles.values(), mismatched);
+        Set<String> removals = new HashSet<>();
+        Map<Integer, Set<String>> keysByBucket = new HashMap<>(state.keysByBucket());
+        for (Integer bucket : mismatched) {
+            for (String key : state.keysByBucket().getOrDefault(bucket, Set.of())) {
+                if (!rows.properties().containsKey(key)) {
+                    removals.add(key);
+                }
+            }
+            Set<String> keys = rows.keysByBucket().get(bucket);
+            if (keys == null) {
+                keysByBucket.remove(bucket);
+            }
+            else {
+                keysByBucket.put(bucket, keys);
+            }
+        }
+        bucketState = new BucketState(state.profiles(), digests, keysByBucket);
+        return Optional.of(flatten(new ConfigDelta(rows.properties(), removals, version, Instant.now())));
+    }
+
+    private VersionedRead read(ActiveProfiles profiles, ConfigVersion since) {
+        DbConfigJdbcRepository repository = router.forReads();
+        ConfigVersion version = repository.getCurrentVersion(profiles.values());
+        DbConfigJdbcRepository verified = router.verifiedReads(repository, version, since);
+        return verified == repository ? new VersionedRead(repository, version) : new VersionedRead(verified, verified.getCurrentVersion(profiles.values()));
+    }
+
+    private Map<String, Object> flatten(Map<String, Object> properties) {
+        return flattener == null ? properties : flattener.flattenSnapshot(properties);
+    }
+
+    private ConfigDelta flatten(ConfigDelta delta) {
+        return flattener == null ? delta : flattener.flattenDelta(delta);
+    }
+
+    private record VersionedRead(DbConfigJdbcRepository repository, ConfigVersion version) {
+    }
+
+    private record BucketState(List<String> profiles, Map<Integer, String> digests, Map<Integer, Set<String>> keysByBucket) {
     }
 }
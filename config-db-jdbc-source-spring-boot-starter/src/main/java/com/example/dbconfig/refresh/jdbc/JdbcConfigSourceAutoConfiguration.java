@@ -1,21 +1,84 @@
 package com.example.dbconfig.refresh.jdbc;
 
+import java.time.Duration;
+
 import javax.sql.DataSource;
 
 import com.example.dbconfig.core.ConfigSnapshotProvider;
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.TenantConfigSnapshotProvider;
+import com.example.dbconfig.refresh.DbConfigConnectionPool;
+import com.example.dbconfig.refresh.DbConfigCoreAutoConfiguration;
+import com.example.dbconfig.refresh.DbConfigRefreshMetrics;
+import com.example.dbconfig.refresh.DbConfigRefreshProperties;
+import com.example.dbconfig.refresh.DbConfigRefreshState;
+import com.example.dbconfig.refresh.PollingRefreshTrigger;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
-@AutoConfiguration
+@AutoConfiguration(after = { DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class }, before = DbConfigCoreAutoConfiguration.class)
 @ConditionalOnBean(DataSource.class)
 @EnableConfigurationProperties(JdbcConfigSourceProperties.class)
 public class JdbcConfigSourceAutoConfiguration {
     @Bean @ConditionalOnMissingBean
-    DbConfigJdbcRepository dbConfigJdbcRepository(JdbcTemplate jdbcTemplate) { return new DbConfigJdbcRepository(jdbcTemplate); }
+    DbConfigJdbcRepository dbConfigJdbcRepository(JdbcTemplate jdbcTemplate, ObjectProvider<DbConfigConnectionPool> pool, ObjectProvider<DbConfigBulkLoader> bulkLoader, JdbcConfigSourceProperties properties, ObjectProvider<PollingRefreshTrigger> pollingTrigger) {
+        DbConfigConnectionPool configPool = pool.getIfAvailable();
+        JdbcTemplate configJdbcTemplate = configPool == null ? jdbcTemplate : new JdbcTemplate(configPool.getDataSource());
+        DbConfigJdbcRepository repository = new DbConfigJdbcRepository(configJdbcTemplate, properties, DbConfigJdbcRepository.resolveDialect(configJdbcTemplate, properties), bulkLoader.getIfAvailable());
+        repository.setStaleValueHandler(key -> pollingTrigger.ifAvailable(PollingRefreshTrigger::requestRefreshSoon));
+        return repository;
+    }
+    @Bean @ConditionalOnMissingBean
+    DbConfigReplicaRouter dbConfigReplicaRouter(DbConfigJdbcRepository repository, JdbcConfigSourceProperties properties, ObjectProvider<DbConfigRefreshProperties> refreshProperties, ObjectProvider<DbConfigRefreshState> state) {
+        DbConfigRefreshProperties refresh = refreshProperties.getIfAvailable();
+        return DbConfigReplicaRouter.create(repository, properties, refresh == null ? Duration.ZERO : refresh.getPollInterval(), () -> {
+            DbConfigRefreshState current = state.getIfAvailable();
+            if (current == null) {
+                return null;
+            }
+            ConfigVersion applied = current.getLastConfigVersion();
+            ConfigVersion notified = current.getLastNotifiedVersion();
+            return notified != null && notified.isComparableTo(applied) && notified.isNewerThan(applied) ? notified : applied;
+        });
+    }
     @Bean @ConditionalOnMissingBean(ConfigSnapshotProvider.class)
-    JdbcConfigSnapshotProvider jdbcConfigSnapshotProvider(DbConfigJdbcRepository repository) { return new JdbcConfigSnapshotProvider(repository); }
+    JdbcConfigSnapshotProvider jdbcConfigSnapshotProvider(DbConfigReplicaRouter router, JdbcConfigSourceProperties properties) { return new JdbcConfigSnapshotProvider(router, properties); }
+    @Bean @ConditionalOnMissingBean(TenantConfigSnapshotProvider.class) @ConditionalOnProperty(prefix = "dbconfig.source.jdbc.column", name = "tenant")
+    JdbcTenantConfigSnapshotProvider jdbcTenantConfigSnapshotProvider(DbConfigReplicaRouter router) { return new JdbcTenantConfigSnapshotProvider(router); }
+    @Bean @ConditionalOnMissingBean
+    DbConfigJdbcWriter dbConfigJdbcWriter(DbConfigJdbcRepository repository, JdbcConfigSourceProperties properties) { return new DbConfigJdbcWriter(repository, properties); }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnProperty(prefix = "dbconfig.source.jdbc.writer", name = "endpoint-enabled", havingValue = "true")
+    static class WriteEndpointConfiguration {
+        @Bean @ConditionalOnMissingBean
+        DbConfigWriteEndpoint dbConfigWriteEndpoint(DbConfigJdbcWriter writer) { return new DbConfigWriteEndpoint(writer); }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    @ConditionalOnBean(DataSourceProperties.class)
+    @ConditionalOnProperty(prefix = "dbconfig.source.jdbc.pool", name = "enabled", havingValue = "true")
+    static class ConnectionPoolConfiguration {
+        @Bean @ConditionalOnMissingBean(DbConfigConnectionPool.class)
+        HikariDbConfigConnectionPool dbConfigConnectionPool(DataSourceProperties dataSourceProperties, JdbcConfigSourceProperties properties, ObjectProvider<DbConfigRefreshMetrics> metrics) {
+            HikariDbConfigConnectionPool pool = HikariDbConfigConnectionPool.create(dataSourceProperties, properties.getPool());
+            metrics.ifAvailable(m -> m.bindConnectionPool(pool));
+            return pool;
+        }
+    }
 }
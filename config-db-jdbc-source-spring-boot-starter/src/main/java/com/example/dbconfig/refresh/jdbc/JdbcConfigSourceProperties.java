@@ -1,19 +1,56 @@
 package com.example.dbconfig.refresh.jdbc;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "dbconfig.source.jdbc")
 public class JdbcConfigSourceProperties {
     private String table = "db_config_properties";
     private Columns column = new Columns();
+    private MergeMode mergeMode = MergeMode.AUTO;
+    private DbConfigSqlDialect dialect;
+    private int fetchSize = 1000;
+    private Duration statementTimeout = Duration.ofSeconds(10);
+    private List<String> includePrefixes = new ArrayList<>();
+    private List<String> excludePrefixes = new ArrayList<>();
+    private final Delta delta = new Delta();
+    private final Version version = new Version();
+    private final Replica replica = new Replica();
+    private final Pool pool = new Pool();
+    private final Writer writer = new Writer();
+    private final LazyValues lazyValues = new LazyValues();
+    private final Structured structured = new Structured();
     public String getTable() { return table; }
     public void setTable(String table) { this.table = table; }
     public Columns getColumn() { return column; }
+    public MergeMode getMergeMode() { return mergeMode; }
+    public void setMergeMode(MergeMode mergeMode) { this.mergeMode = mergeMode; }
+    public DbConfigSqlDialect getDialect() { return dialect; }
+    public void setDialect(DbConfigSqlDialect dialect) { this.dialect = dialect; }
+    public int getFetchSize() { return fetchSize; }
+    public void setFetchSize(int fetchSize) { this.fetchSize = fetchSize; }
+    public Duration getStatementTimeout() { return statementTimeout; }
+    public void setStatementTimeout(Duration statementTimeout) { this.statementTimeout = statementTimeout; }
+    public List<String> getIncludePrefixes() { return includePrefixes; }
+    public void setIncludePrefixes(List<String> includePrefixes) { this.includePrefixes = includePrefixes; }
+    public List<String> getExcludePrefixes() { return excludePrefixes; }
+    public void setExcludePrefixes(List<String> excludePrefixes) { this.excludePrefixes = excludePrefixes; }
+    public Delta getDelta() { return delta; }
+    public Version getVersion() { return version; }
+    public Replica getReplica() { return replica; }
+    public Pool getPool() { return pool; }
+    public Writer getWriter() { return writer; }
+    public LazyValues getLazyValues() { return lazyValues; }
+    public Structured getStructured() { return structured; }
     public static class Columns {
-        private String key = "property_key";
+        private String key = "prop_key";
         private String profile = "profile";
-        private String value = "property_value";
+        private String value = "prop_value";
         private String updatedAt = "updated_at";
+        private String tenant;
         public String getKey() { return key; }
         public void setKey(String key) { this.key = key; }
         public String getProfile() { return profile; }
@@ -22,5 +59,134 @@ public class JdbcConfigSourceProperties {
         public void setValue(String value) { this.value = value; }
         public String getUpdatedAt() { return updatedAt; }
         public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
+        public String getTenant() { return tenant; }
+        public void setTenant(String tenant) { this.tenant = tenant; }
+    }
+
+    public static class Delta {
+        private boolean enabled = false;
+        private DeltaStrategy strategy = DeltaStrategy.CHANGED_ROWS;
+        private int buckets = 256;
+        private String tombstoneColumn = "deleted";
+        private Duration lookback = Duration.ofSeconds(1);
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public DeltaStrategy getStrategy() { return strategy; }
+        public void setStrategy(DeltaStrategy strategy) { this.strategy = strategy; }
+        public int getBuckets() { return buckets; }
+        public void setBuckets(int buckets) { this.buckets = buckets; }
+        public String getTombstoneColumn() { return tombstoneColumn; }
+        public void setTombstoneColumn(String tombstoneColumn) { this.tombstoneColumn = tombstoneColumn; }
+        public Duration getLookback() { return lookback; }
+        public void setLookback(Duration lookback) { this.lookback = lookback; }
+    }
+
+    public static class Version {
+        private VersionStrategy strategy = VersionStrategy.UPDATED_AT;
+        private String table = "db_config_version";
+        private String column = "version";
+        private String rowColumn = "change_seq";
+        private boolean perProfile = false;
+        public VersionStrategy getStrategy() { return strategy; }
+        public void setStrategy(VersionStrategy strategy) { this.strategy = strategy; }
+        public String getTable() { return table; }
+        public void setTable(String table) { this.table = table; }
+        public String getColumn() { return column; }
+        public void setColumn(String column) { this.column = column; }
+        public String getRowColumn() { return rowColumn; }
+        public void setRowColumn(String rowColumn) { this.rowColumn = rowColumn; }
+        public boolean isPerProfile() { return perProfile; }
+        public void setPerProfile(boolean perProfile) { this.perProfile = perProfile; }
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private Duration maxLag = Duration.ofSeconds(30);
+        private String lagQuery;
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public String getDriverClassName() { return driverClassName; }
+        public void setDriverClassName(String driverClassName) { this.driverClassName = driverClassName; }
+        public Duration getMaxLag() { return maxLag; }
+        public void setMaxLag(Duration maxLag) { this.maxLag = maxLag; }
+        public String getLagQuery() { return lagQuery; }
+        public void setLagQuery(String lagQuery) { this.lagQuery = lagQuery; }
+    }
+
+    public static class Pool {
+        private boolean enabled = false;
+        private String name = "dbconfig";
+        private int maxSize = 3;
+        private int minIdle = 0;
+        private Duration connectionTimeout = Duration.ofSeconds(5);
+        private Duration idleTimeout = Duration.ofMinutes(1);
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+        public int getMinIdle() { return minIdle; }
+        public void setMinIdle(int minIdle) { this.minIdle = minIdle; }
+        public Duration getConnectionTimeout() { return connectionTimeout; }
+        public void setConnectionTimeout(Duration connectionTimeout) { this.connectionTimeout = connectionTimeout; }
+        public Duration getIdleTimeout() { return idleTimeout; }
+        public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+    }
+
+    public static class Writer {
+        private String notifyChannel = "dbconfig_refresh";
+        private int batchSize = 500;
+        private boolean endpointEnabled = false;
+        public String getNotifyChannel() { return notifyChannel; }
+        public void setNotifyChannel(String notifyChannel) { this.notifyChannel = notifyChannel; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public boolean isEndpointEnabled() { return endpointEnabled; }
+        public void setEndpointEnabled(boolean endpointEnabled) { this.endpointEnabled = endpointEnabled; }
+    }
+
+    public static class LazyValues {
+        private boolean enabled = false;
+        private int threshold = 4096;
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getThreshold() { return threshold; }
+        public void setThreshold(int threshold) { this.threshold = threshold; }
+    }
+
+    public static class Structured {
+        private List<String> keys = new ArrayList<>();
+        private boolean detectJsonObjects = false;
+        public List<String> getKeys() { return keys; }
+        public void setKeys(List<String> keys) { this.keys = keys; }
+        public boolean isDetectJsonObjects() { return detectJsonObjects; }
+        public void setDetectJsonObjects(boolean detectJsonObjects) { this.detectJsonObjects = detectJsonObjects; }
+    }
+
+    public enum DeltaStrategy {
+        CHANGED_ROWS,
+        MERKLE_BUCKETS
+    }
+
+    public enum VersionStrategy {
+        UPDATED_AT,
+        SEQUENCE,
+        FINGERPRINT
+    }
+
+    public enum MergeMode {
+        AUTO,
+        PER_PROFILE,
+        SINGLE_QUERY,
+        WINDOW_FUNCTION,
+        DISTINCT_ON
     }
 }
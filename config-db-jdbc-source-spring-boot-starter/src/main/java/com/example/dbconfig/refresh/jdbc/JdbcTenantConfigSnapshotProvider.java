@@ -0,0 +1,41 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.TenantConfigSnapshotProvider;
+
+public class JdbcTenantConfigSnapshotProvider implements TenantConfigSnapshotProvider {
+    private static final int TENANT_CHUNK_SIZE = 100;
+
+    private final DbConfigReplicaRouter router;
+
+    public JdbcTenantConfigSnapshotProvider(DbConfigReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Map<String, ConfigVersion> fetchTenantVersions(ActiveProfiles profiles) {
+        return router.forReads().getTenantVersions(profiles.values());
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> fetchTenantOverrides(ActiveProfiles profiles, Collection<String> tenantIds) {
+        DbConfigJdbcRepository repository = router.forReads();
+        if (tenantIds == null) {
+            return repository.loadTenantOverrides(profiles.values(), null);
+        }
+        // Chunked so the number of distinct IN-list statement shapes stays bounded.
+        List<String> ids = new ArrayList<>(tenantIds);
+        Map<String, Map<String, Object>> overrides = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += TENANT_CHUNK_SIZE) {
+            overrides.putAll(repository.loadTenantOverrides(profiles.values(), ids.subList(from, Math.min(ids.size(), from + TENANT_CHUNK_SIZE))));
+        }
+        return overrides;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.dbconfig.core.ConfigDelta;
+import com.example.dbconfig.core.LazyPropertyValue;
+import com.example.dbconfig.core.SnapshotProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+public class StructuredValueFlattener {
+    private static final Logger log = LoggerFactory.getLogger(StructuredValueFlattener.class);
+
+    private static final Comparator<String> PRECEDENCE = Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private final Set<String> structuredKeys;
+    private final boolean detectJsonObjects;
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+    // Flattened path -> keys of the documents producing it, so a delta resolves a path without scanning documents.
+    private final Map<String, Set<String>> owners = new ConcurrentHashMap<>();
+    private final Set<String> plainKeys = ConcurrentHashMap.newKeySet();
+
+    public StructuredValueFlattener(JdbcConfigSourceProperties.Structured properties) {
+        this.structuredKeys = Set.copyOf(properties.getKeys());
+        this.detectJsonObjects = properties.isDetectJsonObjects();
+    }
+
+    public boolean isEnabled() {
+        return !structuredKeys.isEmpty() || detectJsonObjects;
+    }
+
+    public Map<String, Object> flattenSnapshot(Map<String, Object> properties) {
+        Map<String, Map<String, Object>> flattened = new HashMap<>();
+        plainKeys.clear();
+        properties.forEach((key, value) -> {
+            Document document = document(key, value);
+            if (document != null) {
+                flattened.put(key, document.properties());
+            }
+            else {
+                plainKeys.add(key);
+            }
+        });
+        documents.keySet().removeIf(key -> {
+            if (flattened.containsKey(key)) {
+                return false;
+            }
+            unindex(key, documents.get(key));
+            return true;
+        });
+        if (flattened.isEmpty()) {
+            return properties;
+        }
+        SnapshotProperties.Builder result = SnapshotProperties.builder(properties.size() + flattened.size() * 8);
+        // Documents are applied shortest key first, so where two documents produce the same path the longest key wins.
+        flattened.keySet().stream().sorted(PRECEDENCE).forEach(key -> result.putAll(flattened.get(key)));
+        // Plain rows are applied last so they win over keys produced by a document.
+        properties.forEach((key, value) -> {
+            if (!flattened.containsKey(key)) {
+                result.put(key, value);
+            }
+        });
+        return result.build();
+    }
+
+    /**
+     * Rewrites a raw-row delta into a delta over flattened keys, resolving every key it touches with the
+     * snapshot rules: a plain row wins over a document key, and a key no row or document produces is removed.
+     */
+    public ConfigDelta flattenDelta(ConfigDelta delta) {
+        Map<String, Object> plainUpserts = new HashMap<>();
+        Set<String> touched = new HashSet<>();
+        delta.upserts().forEach((key, value) -> {
+            Document previous = documents.get(key);
+            if (previous != null) {
+                touched.addAll(previous.properties().keySet());
+            }
+            touched.add(key);
+            Document document = document(key, value);
+            if (document == null) {
+                plainKeys.add(key);
+                plainUpserts.put(key, value);
+            }
+            else {
+                plainKeys.remove(key);
+                touched.addAll(document.properties().keySet());
+            }
+        });
+        for (String key : delta.removals()) {
+            Document previous = documents.remove(key);
+            if (previous != null) {
+                unindex(key, previous);
+                touched.addAll(previous.properties().keySet());
+            }
+            plainKeys.remove(key);
+            touched.add(key);
+        }
+        Map<String, Object> upserts = new HashMap<>(touched.size());
+        Set<String> removals = new HashSet<>();
+        for (String key : touched) {
+            if (plainKeys.contains(key)) {
+                // An unchanged plain row is already what the property source holds.
+                Object value = plainUpserts.get(key);
+                if (value != null) {
+                    upserts.put(key, value);
+                }
+                continue;
+            }
+            Object value = documentValue(key);
+            if (value != null) {
+                upserts.put(key, value);
+            }
+            else {
+                removals.add(key);
+            }
+        }
+        return new ConfigDelta(upserts, removals, delta.version(), delta.fetchedAt());
+    }
+
+    private Object documentValue(String key) {
+        Set<String> sources = owners.get(key);
+        if (sources == null) {
+            return null;
+        }
+        String owner = null;
+        for (String source : sources) {
+            if (owner == null || PRECEDENCE.compare(source, owner) > 0) {
+                owner = source;
+            }
+        }
+        Document document = owner == null ? null : documents.get(owner);
+        return document == null ? null : document.properties().get(key);
+    }
+
+    private void index(String source, Document document) {
+        for (String path : document.properties().keySet()) {
+            owners.computeIfAbsent(path, ignored -> ConcurrentHashMap.newKeySet()).add(source);
+        }
+    }
+
+    private void unindex(String source, Document document) {
+        if (document == null) {
+            return;
+        }
+        for (String path : document.properties().keySet()) {
+            owners.computeIfPresent(path, (ignored, sources) -> {
+                sources.remove(source);
+                return sources.isEmpty() ? null : sources;
+            });
+        }
+    }
+
+    private Document document(String key, Object rawValue) {
+        if (!(structuredKeys.contains(key) || (detectJsonObjects && rawValue instanceof String text && text.stripLeading().startsWith("{")))) {
+            unindex(key, documents.remove(key));
+            return null;
+        }
+        Object value = LazyPropertyValue.resolve(rawValue);
+        if (!(value instanceof String text)) {
+            unindex(key, documents.remove(key));
+            return null;
+        }
+        Document cached = documents.get(key);
+        if (cached != null && cached.source().equals(text)) {
+            return cached;
+        }
+        try {
+            Object parsed = new Yaml(new SafeConstructor(new LoaderOptions())).load(text);
+            Map<String, Object> properties = new LinkedHashMap<>();
+            flatten(key, parsed, properties);
+            Document document = new Document(text, properties);
+            unindex(key, documents.put(key, document));
+            index(key, document);
+            return document;
+        }
+        catch (RuntimeException ex) {
+            log.warn("Could not parse structured config value for key '{}'; keeping the raw value", key, ex);
+            unindex(key, documents.remove(key));
+            return null;
+        }
+    }
+
+    private static void flatten(String path, Object value, Map<String, Object> result) {
+        if (value instanceof Map<?, ?> map) {
+            if (map.isEmpty()) {
+                result.put(path, "");
+            }
+            map.forEach((name, child) -> flatten(path + "." + name, child, result));
+        }
+        else if (value instanceof Collection<?> collection) {
+            if (collection.isEmpty()) {
+                result.put(path, "");
+            }
+            int index = 0;
+            for (Object child : collection) {
+                flatten(path + "[" + index++ + "]", child, result);
+            }
+        }
+        else {
+            result.put(path, value == null ? "" : value);
+        }
+    }
+
+    private record Document(String source, Map<String, Object> properties) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.ConfigVersionVector;
+import com.example.dbconfig.core.LazyPropertyValue;
+import com.example.dbconfig.core.RefreshDeadline;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DbConfigJdbcRepositoryTest {
+
+    @Test
+    void deadlineCancelsRunningQuery() {
+        SlowStatement statement = new SlowStatement();
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setDialect(DbConfigSqlDialect.ORACLE);
+        DbConfigJdbcRepository repository = new DbConfigJdbcRepository(new JdbcTemplate(statement.dataSource()), properties);
+
+        long start = System.nanoTime();
+        RefreshDeadline.Handle scope = RefreshDeadline.after(Duration.ofMillis(200)).activate();
+        try {
+            assertThatThrownBy(repository::getCurrentVersion).isInstanceOf(DataAccessException.class);
+        }
+        finally {
+            scope.close();
+        }
+
+        assertThat(statement.cancelled.getCount()).isZero();
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toSeconds()).isLessThan(5);
+    }
+
+    @Test
+    void tenantRowEditsLeaveSharedVersionUnchanged() {
+        UpdatedAtTable table = new UpdatedAtTable();
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setDialect(DbConfigSqlDialect.GENERIC);
+        properties.getColumn().setTenant("tenant_id");
+        DbConfigJdbcRepository repository = new DbConfigJdbcRepository(new JdbcTemplate(table.dataSource()), properties);
+        ConfigVersion before = repository.getCurrentVersion();
+
+        table.tenantUpdatedAt = Instant.parse("2024-06-01T00:00:00Z");
+
+        assertThat(repository.getCurrentVersion()).isEqualTo(before);
+        table.sharedUpdatedAt = Instant.parse("2024-07-01T00:00:00Z");
+        assertThat(repository.getCurrentVersion().isNewerThan(before)).isTrue();
+    }
+
+    @Test
+    void fingerprintVersionVectorDetectsDeleteBelowLayerMax() {
+        LayerTable table = new LayerTable();
+        table.rows.add(new Object[] {null, Instant.parse("2024-01-01T00:00:00Z")});
+        table.rows.add(new Object[] {null, Instant.parse("2024-02-01T00:00:00Z")});
+        table.rows.add(new Object[] {"dev", Instant.parse("2024-01-01T00:00:00Z")});
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setDialect(DbConfigSqlDialect.GENERIC);
+        properties.getVersion().setStrategy(JdbcConfigSourceProperties.VersionStrategy.FINGERPRINT);
+        DbConfigJdbcRepository repository = new DbConfigJdbcRepository(new JdbcTemplate(table.dataSource()), properties);
+        ConfigVersionVector before = repository.getVersionVector(List.of("dev"));
+
+        table.rows.remove(0);
+
+        ConfigVersionVector after = repository.getVersionVector(List.of("dev"));
+        assertThat(after).isNotEqualTo(before);
+        assertThat(after.profileLayers()).isEqualTo(before.profileLayers());
+        assertThat(after.defaultLayer().instantValue()).isEqualTo(before.defaultLayer().instantValue());
+    }
+
+    @Test
+    void changedRowsDeferLargeValues() {
+        ChangedRows table = new ChangedRows();
+        table.rows.add(new String[] {"demo.small", "1", null});
+        table.rows.add(new String[] {"demo.big", null, "h1"});
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getLazyValues().setEnabled(true);
+        DbConfigJdbcRepository repository = new DbConfigJdbcRepository(new JdbcTemplate(table.dataSource()), properties, DbConfigSqlDialect.POSTGRESQL);
+
+        DbConfigJdbcRepository.PropertyChanges changes = repository.loadChangedForProfiles(List.of(), ConfigVersion.ofInstant(Instant.EPOCH));
+
+        assertThat(table.sql).contains("value_hash");
+        assertThat(changes.upserts()).containsEntry("demo.small", "1");
+        assertThat(changes.upserts().get("demo.big")).isInstanceOf(LazyPropertyValue.class);
+        assertThat(((LazyPropertyValue) changes.upserts().get("demo.big")).isLoaded()).isFalse();
+    }
+
+    // Rows of (prop_key, prop_value, value_hash) returned for any query; a row with a hash has its value deferred.
+    private static final class ChangedRows {
+
+        private final List<String[]> rows = new ArrayList<>();
+        private String sql;
+
+        private DataSource dataSource() {
+            Connection connection = SlowStatement.stub(Connection.class, (name, args) -> {
+                if (name.equals("prepareStatement")) {
+                    sql = (String) args[0];
+                    return SlowStatement.stub(PreparedStatement.class, (statementMethod, ignored) -> statementMethod.equals("executeQuery") ? resultSet() : null);
+                }
+                return null;
+            });
+            return SlowStatement.stub(DataSource.class, (name, args) -> name.equals("getConnection") ? connection : null);
+        }
+
+        private ResultSet resultSet() {
+            int[] cursor = {-1};
+            return SlowStatement.stub(ResultSet.class, (name, args) -> switch (name) {
+                case "next" -> ++cursor[0] < rows.size();
+                case "getString" -> switch ((String) args[0]) {
+                    case "prop_key" -> rows.get(cursor[0])[0];
+                    case "prop_value" -> rows.get(cursor[0])[1];
+                    case "value_hash" -> rows.get(cursor[0])[2];
+                    default -> null;
+                };
+                case "getLong" -> 8192L;
+                default -> null;
+            });
+        }
+    }
+
+    // Rows of (profile, updated_at) grouped per profile, answering the version-vector query.
+    private static final class LayerTable {
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private DataSource dataSource() {
+            Connection connection = SlowStatement.stub(Connection.class, (name, args) -> name.equals("prepareStatement") ? statement() : null);
+            return SlowStatement.stub(DataSource.class, (name, args) -> name.equals("getConnection") ? connection : null);
+        }
+
+        private PreparedStatement statement() {
+            return SlowStatement.stub(PreparedStatement.class, (name, args) -> name.equals("executeQuery") ? resultSet() : null);
+        }
+
+        private ResultSet resultSet() {
+            Map<String, List<Instant>> layers = new TreeMap<>();
+            rows.forEach(row -> layers.computeIfAbsent(row[0] == null ? "" : (String) row[0], profile -> new ArrayList<>()).add((Instant) row[1]));
+            List<Map.Entry<String, List<Instant>>> groups = new ArrayList<>(layers.entrySet());
+            int[] cursor = {-1};
+            return SlowStatement.stub(ResultSet.class, (name, args) -> {
+                Map.Entry<String, List<Instant>> group = cursor[0] < 0 || cursor[0] >= groups.size() ? null : groups.get(cursor[0]);
+                return switch (name) {
+                    case "next" -> ++cursor[0] < groups.size();
+                    case "getString" -> group.getKey().isEmpty() ? null : group.getKey();
+                    case "getTimestamp" -> Timestamp.from(group.getValue().stream().max(Instant::compareTo).orElseThrow());
+                    case "getLong" -> (long) group.getValue().size();
+                    default -> null;
+                };
+            });
+        }
+    }
+
+    // MAX(updated_at) over a table with one shared and one tenant row; the tenant row counts unless the query excludes it.
+    private static final class UpdatedAtTable {
+
+        private Instant sharedUpdatedAt = Instant.parse("2024-01-01T00:00:00Z");
+        private Instant tenantUpdatedAt = Instant.parse("2023-01-01T00:00:00Z");
+
+        private DataSource dataSource() {
+            Connection connection = SlowStatement.stub(Connection.class, (name, args) -> name.equals("prepareStatement") ? statement((String) args[0]) : null);
+            return SlowStatement.stub(DataSource.class, (name, args) -> name.equals("getConnection") ? connection : null);
+        }
+
+        private PreparedStatement statement(String sql) {
+            return SlowStatement.stub(PreparedStatement.class, (name, args) -> name.equals("executeQuery") ? resultSet(sql) : null);
+        }
+
+        private ResultSet resultSet(String sql) {
+            Instant max = sql.contains("tenant_id IS NULL") || sharedUpdatedAt.isAfter(tenantUpdatedAt) ? sharedUpdatedAt : tenantUpdatedAt;
+            boolean[] consumed = new boolean[1];
+            return SlowStatement.stub(ResultSet.class, (name, args) -> switch (name) {
+                case "next" -> {
+                    boolean hasRow = !consumed[0];
+                    consumed[0] = true;
+                    yield hasRow;
+                }
+                case "getTimestamp" -> Timestamp.from(max);
+                default -> null;
+            });
+        }
+    }
+
+    // A statement whose executeQuery() blocks until cancel() is called, like a query stuck on a lock.
+    private static final class SlowStatement {
+
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+
+        private DataSource dataSource() {
+            PreparedStatement statement = stub(PreparedStatement.class, (name, args) -> switch (name) {
+                case "executeQuery" -> {
+                    if (!cancelled.await(10, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("Query was not cancelled");
+                    }
+                    throw new SQLException("canceling statement due to user request", "57014");
+                }
+                case "cancel" -> {
+                    cancelled.countDown();
+                    yield null;
+                }
+                default -> null;
+            });
+            Connection connection = stub(Connection.class, (name, args) -> name.equals("prepareStatement") ? statement : null);
+            return stub(DataSource.class, (name, args) -> name.equals("getConnection") ? connection : null);
+        }
+
+        private static <T> T stub(Class<T> type, Answer answer) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+                Object result = switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> answer.answer(method.getName(), args);
+                };
+                if (result == null && method.getReturnType() == boolean.class) {
+                    return false;
+                }
+                return result == null && method.getReturnType() == int.class ? 0 : result;
+            }));
+        }
+    }
+
+    private interface Answer {
+        Object answer(String methodName, Object[] args) throws Exception;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import com.example.dbconfig.core.ConfigVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+class DbConfigJdbcWriterTest {
+
+    @Test
+    void insertsRowsWhoseUpdateMatchedNothing() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(0, Set.of());
+        DbConfigJdbcWriter writer = writer(jdbcTemplate);
+
+        DbConfigJdbcWriter.WriteResult result = writer.write(List.of(DbConfigChange.put("demo.mode", "dev", "a")));
+
+        assertThat(result.upserted()).isEqualTo(1);
+        assertThat(jdbcTemplate.inserted).containsExactly("demo.mode");
+        assertThat(jdbcTemplate.existenceChecks).isEqualTo(0);
+    }
+
+    @Test
+    void checksExistenceWhenDriverReportsNoUpdateCounts() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(Statement.SUCCESS_NO_INFO, Set.of("demo.existing"));
+        DbConfigJdbcWriter writer = writer(jdbcTemplate);
+
+        writer.write(List.of(DbConfigChange.put("demo.existing", "dev", "a"), DbConfigChange.put("demo.new", "dev", "b"),
+                DbConfigChange.put("demo.shared", null, "c")));
+
+        assertThat(jdbcTemplate.existenceChecks).isEqualTo(3);
+        assertThat(jdbcTemplate.inserted).containsExactlyInAnyOrder("demo.new", "demo.shared");
+    }
+
+    @Test
+    void updatesRowsAnotherWriterInsertedFirst() {
+        RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate(0, Set.of());
+        jdbcTemplate.insertedConcurrently = Set.of("demo.raced");
+        DbConfigJdbcWriter writer = writer(jdbcTemplate);
+
+        DbConfigJdbcWriter.WriteResult result = writer.write(List.of(DbConfigChange.put("demo.raced", "dev", "a"),
+                DbConfigChange.put("demo.new", "dev", "b")));
+
+        assertThat(result.upserted()).isEqualTo(2);
+        assertThat(jdbcTemplate.updated).containsExactlyInAnyOrder("demo.raced", "demo.new");
+        assertThat(jdbcTemplate.inserted).containsExactly("demo.new");
+    }
+
+    @Test
+    void postgresInsertSkipsConflictsAndWritesWithClockTimestamp() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.POSTGRESQL);
+
+        assertThat(statements.insertValue()).isEqualTo("INSERT INTO db_config_properties (prop_key, profile, prop_value, updated_at)"
+                + " VALUES (?, ?, ?, clock_timestamp()) ON CONFLICT DO NOTHING");
+        assertThat(statements.updateValue(false)).contains("updated_at = clock_timestamp()");
+    }
+
+    private static DbConfigJdbcWriter writer(JdbcTemplate jdbcTemplate) {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setDialect(DbConfigSqlDialect.ORACLE);
+        properties.getWriter().setNotifyChannel("");
+        DbConfigJdbcRepository repository = new DbConfigJdbcRepository(jdbcTemplate, properties) {
+            @Override
+            public ConfigVersion getCurrentVersion() {
+                return ConfigVersion.ofSequence(1);
+            }
+        };
+        return new DbConfigJdbcWriter(repository, properties);
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final int updateCount;
+        private final Set<String> existingKeys;
+        private final List<String> inserted = new ArrayList<>();
+        private final List<String> updated = new ArrayList<>();
+        private Set<String> insertedConcurrently = Set.of();
+        private int existenceChecks;
+
+        private RecordingJdbcTemplate(int updateCount, Set<String> existingKeys) {
+            super(transactionalDataSource());
+            this.updateCount = updateCount;
+            this.existingKeys = existingKeys;
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize, ParameterizedPreparedStatementSetter<T> pss) {
+            if (sql.startsWith("INSERT")) {
+                if (batchArgs.stream().anyMatch(row -> insertedConcurrently.contains(((DbConfigChange) row).key()))) {
+                    throw new DuplicateKeyException("duplicate key value violates unique constraint");
+                }
+                batchArgs.forEach(row -> inserted.add(((DbConfigChange) row).key()));
+            }
+            int[] counts = new int[batchArgs.size()];
+            Arrays.fill(counts, sql.startsWith("INSERT") ? 1 : updateCount);
+            return new int[][] {counts};
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            String key = (String) (sql.startsWith("INSERT") ? args[0] : args[1]);
+            if (sql.startsWith("INSERT")) {
+                inserted.add(key);
+                return 1;
+            }
+            updated.add(key);
+            return insertedConcurrently.contains(key) ? 1 : 0;
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            existenceChecks++;
+            return requiredType.cast(existingKeys.contains((String) args[0]) ? 1 : 0);
+        }
+
+        private static DataSource transactionalDataSource() {
+            Connection connection = stub(Connection.class, null);
+            return stub(DataSource.class, connection);
+        }
+
+        // Answers every call with a default value, or with the given connection for getConnection().
+        private static <T> T stub(Class<T> type, Connection connection) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> switch (method.getName()) {
+                case "getConnection" -> connection;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> method.getReturnType() == boolean.class ? false : method.getReturnType() == int.class ? 0 : null;
+            }));
+        }
+    }
+}
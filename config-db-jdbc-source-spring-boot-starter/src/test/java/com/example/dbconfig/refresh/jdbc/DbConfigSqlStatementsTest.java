@@ -0,0 +1,186 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DbConfigSqlStatementsTest {
+
+    @Test
+    void rendersConfiguredTableAndColumns() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setTable("app.settings");
+        properties.getColumn().setKey("name");
+        properties.getColumn().setProfile("env");
+        properties.getColumn().setValue("val");
+        properties.getColumn().setUpdatedAt("modified");
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC);
+
+        assertThat(statements.lastUpdated()).isEqualTo("SELECT MAX(modified) FROM app.settings");
+        assertThat(statements.nullLayer()).isEqualTo("SELECT name AS prop_key, val AS prop_value FROM app.settings WHERE env IS NULL");
+        assertThat(statements.profileLayer()).isEqualTo("SELECT name AS prop_key, val AS prop_value FROM app.settings WHERE env = ?");
+        assertThat(statements.insertValue()).isEqualTo("INSERT INTO app.settings (name, env, val, modified) VALUES (?, ?, ?, CURRENT_TIMESTAMP)");
+    }
+
+    @Test
+    void rejectsIdentifiersThatAreNotPlainNames() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getColumn().setKey("prop_key; DROP TABLE users");
+
+        assertThatThrownBy(() -> new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("column.key");
+    }
+
+    @Test
+    void rejectsNonPositiveBucketCount() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getDelta().setBuckets(0);
+
+        assertThatThrownBy(() -> new DbConfigSqlStatements(properties, DbConfigSqlDialect.POSTGRESQL))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("buckets");
+    }
+
+    @Test
+    void mergedLoadFollowsDialectMergeMode() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+
+        String postgres = new DbConfigSqlStatements(properties, DbConfigSqlDialect.POSTGRESQL).mergedLoad(2);
+        String h2 = new DbConfigSqlStatements(properties, DbConfigSqlDialect.H2).mergedLoad(2);
+        String generic = new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC).mergedLoad(2);
+
+        assertThat(postgres).startsWith("SELECT DISTINCT ON (prop_key) ");
+        assertThat(postgres).endsWith("ORDER BY prop_key, CASE profile WHEN ? THEN 1 WHEN ? THEN 2 ELSE 0 END DESC");
+        assertThat(h2).contains("ROW_NUMBER() OVER (PARTITION BY prop_key ORDER BY CASE profile WHEN ? THEN 1 WHEN ? THEN 2 ELSE 0 END DESC)");
+        assertThat(h2).endsWith("WHERE layer_rank = 1");
+        assertThat(generic).isEqualTo("SELECT prop_key AS prop_key, prop_value AS prop_value FROM db_config_properties"
+                + " WHERE (profile IS NULL OR profile IN (?, ?)) ORDER BY CASE profile WHEN ? THEN 1 WHEN ? THEN 2 ELSE 0 END");
+    }
+
+    @Test
+    void explicitMergeModeOverridesDialect() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setMergeMode(JdbcConfigSourceProperties.MergeMode.SINGLE_QUERY);
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.POSTGRESQL);
+
+        assertThat(statements.getMergeMode()).isEqualTo(JdbcConfigSourceProperties.MergeMode.SINGLE_QUERY);
+        assertThat(statements.mergedLoad(1)).doesNotContain("DISTINCT ON");
+    }
+
+    @Test
+    void renderedStatementsAreCachedPerProfileCount() {
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(new JdbcConfigSourceProperties(), DbConfigSqlDialect.POSTGRESQL);
+
+        assertThat(statements.mergedLoad(0)).isSameAs(statements.nullLayer());
+        assertThat(statements.mergedLoad(3)).isSameAs(statements.mergedLoad(3));
+        assertThat(statements.changedSince(2)).isSameAs(statements.changedSince(2));
+        assertThat(statements.bucketRows(2, 5)).isSameAs(statements.bucketRows(2, 5));
+        assertThat(statements.bucketRows(2, 5)).isNotEqualTo(statements.bucketRows(2, 4));
+    }
+
+    @Test
+    void keyPrefixesAreEscapedForLike() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.setIncludePrefixes(List.of("orders.", "100%_off!'s"));
+        properties.setExcludePrefixes(Arrays.asList("orders.internal.", " ", null));
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC);
+
+        assertThat(statements.lastUpdated()).isEqualTo("SELECT MAX(updated_at) FROM db_config_properties WHERE"
+                + " (prop_key LIKE 'orders.%' ESCAPE '!' OR prop_key LIKE '100!%!_off!!''s%' ESCAPE '!')"
+                + " AND prop_key NOT LIKE 'orders.internal.%' ESCAPE '!'");
+        assertThat(statements.nullLayer()).endsWith("WHERE profile IS NULL AND (prop_key LIKE 'orders.%' ESCAPE '!'"
+                + " OR prop_key LIKE '100!%!_off!!''s%' ESCAPE '!') AND prop_key NOT LIKE 'orders.internal.%' ESCAPE '!'");
+    }
+
+    @Test
+    void inlineQuotesArgumentsAndSkipsPlaceholdersInLiterals() {
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(new JdbcConfigSourceProperties(), DbConfigSqlDialect.POSTGRESQL);
+
+        String inlined = statements.inline("SELECT '?' FROM t WHERE a = ? AND b = ? AND c LIKE 'x?%' AND d = ?", Arrays.asList("it's", null, "a\\'b"));
+
+        assertThat(inlined).isEqualTo("SELECT '?' FROM t WHERE a = E'it''s' AND b = NULL AND c LIKE 'x?%' AND d = E'a\\\\''b'");
+    }
+
+    @Test
+    void textMergedLoadCastsKeyAndValueForCopy() {
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(new JdbcConfigSourceProperties(), DbConfigSqlDialect.POSTGRESQL);
+
+        assertThat(statements.textMergedLoad(1)).isEqualTo("SELECT DISTINCT ON (prop_key) prop_key::text AS prop_key, prop_value::text AS prop_value"
+                + " FROM db_config_properties WHERE (profile IS NULL OR profile IN (?)) ORDER BY prop_key, CASE profile WHEN ? THEN 1 ELSE 0 END DESC");
+        assertThat(statements.textMergedLoad(0)).startsWith("SELECT prop_key::text AS prop_key, prop_value::text AS prop_value FROM");
+    }
+
+    @Test
+    void inlineRejectsArgumentCountMismatch() {
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(new JdbcConfigSourceProperties(), DbConfigSqlDialect.POSTGRESQL);
+
+        assertThatThrownBy(() -> statements.inline("SELECT ? , ?", List.of("a"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statements.inline("SELECT ?", List.of("a", "b"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tombstonesTurnDeletesIntoUpdatesAndFilterLoads() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getDelta().setEnabled(true);
+        properties.getDelta().setTombstoneColumn("deleted");
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.ORACLE);
+
+        assertThat(statements.deleteRow(true)).isEqualTo("UPDATE db_config_properties SET deleted = 1, updated_at = CURRENT_TIMESTAMP"
+                + " WHERE prop_key = ? AND profile IS NULL");
+        assertThat(statements.nullLayer()).endsWith(" AND deleted = 0");
+        assertThat(statements.updateValue(false)).contains("deleted = 0");
+        assertThat(statements.changedSince(1)).contains("deleted AS tombstone");
+    }
+
+    @Test
+    void tenantColumnLimitsSharedStatementsToBaseRows() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getColumn().setTenant("tenant_id");
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC);
+
+        assertThat(statements.nullLayer()).endsWith("WHERE profile IS NULL AND tenant_id IS NULL");
+        assertThat(statements.rowExists(false)).isEqualTo("SELECT COUNT(*) FROM db_config_properties WHERE prop_key = ? AND profile = ? AND tenant_id IS NULL");
+        assertThat(statements.tenantRows(0, 2)).contains("tenant_id IN (?, ?)");
+    }
+
+    @Test
+    void sharedVersionIgnoresTenantRows() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getColumn().setTenant("tenant_id");
+        properties.setIncludePrefixes(List.of("orders."));
+        properties.getVersion().setStrategy(JdbcConfigSourceProperties.VersionStrategy.FINGERPRINT);
+
+        DbConfigSqlStatements statements = new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC);
+
+        assertThat(statements.lastUpdated()).isEqualTo("SELECT MAX(updated_at) FROM db_config_properties"
+                + " WHERE tenant_id IS NULL AND (prop_key LIKE 'orders.%' ESCAPE '!')");
+        assertThat(statements.fingerprint()).endsWith("FROM db_config_properties WHERE tenant_id IS NULL AND (prop_key LIKE 'orders.%' ESCAPE '!')");
+        assertThat(statements.fingerprint(1)).contains("tenant_id IS NULL");
+    }
+
+    @Test
+    void genericDialectHasNoBucketSyncOrLazyValues() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getLazyValues().setEnabled(true);
+
+        DbConfigSqlStatements generic = new DbConfigSqlStatements(properties, DbConfigSqlDialect.GENERIC);
+        DbConfigSqlStatements postgres = new DbConfigSqlStatements(properties, DbConfigSqlDialect.POSTGRESQL);
+
+        assertThat(generic.supportsBucketSync()).isFalse();
+        assertThat(generic.hasLazyValues()).isFalse();
+        assertThat(postgres.supportsBucketSync()).isTrue();
+        assertThat(postgres.hasLazyValues()).isTrue();
+        assertThat(postgres.valueLookup(0)).isEqualTo("SELECT prop_value AS prop_value, MD5(prop_value) AS value_hash FROM db_config_properties"
+                + " WHERE prop_key = ? AND profile IS NULL");
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigDelta;
+import com.example.dbconfig.core.ConfigSnapshot;
+import com.example.dbconfig.core.ConfigVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JdbcConfigSnapshotProviderTest {
+
+    private static final ActiveProfiles PROFILES = new ActiveProfiles(List.of("dev"));
+
+    private BucketTable table;
+    private JdbcConfigSnapshotProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        JdbcConfigSourceProperties properties = new JdbcConfigSourceProperties();
+        properties.getDelta().setEnabled(true);
+        properties.getDelta().setStrategy(JdbcConfigSourceProperties.DeltaStrategy.MERKLE_BUCKETS);
+        properties.getDelta().setBuckets(4);
+        table = new BucketTable(properties);
+        table.put("a0", "1");
+        table.put("b1", "1");
+        table.put("c1", "1");
+        table.put("d2", "1");
+        table.put("e3", "1");
+        provider = new JdbcConfigSnapshotProvider(table, properties);
+    }
+
+    @Test
+    void deltaReloadsOnlyMismatchedBuckets() {
+        ConfigSnapshot snapshot = provider.fetchSnapshot(PROFILES);
+        assertThat(snapshot.properties()).hasSize(5);
+
+        table.put("b1", "2");
+        table.remove("c1");
+        ConfigDelta delta = provider.fetchDelta(PROFILES, snapshot.version()).orElseThrow();
+
+        assertThat(table.requestedBuckets).containsExactly(List.of(1));
+        assertThat(delta.upserts()).containsOnlyKeys("b1");
+        assertThat(delta.upserts()).containsEntry("b1", "2");
+        assertThat(delta.removals()).containsExactly("c1");
+    }
+
+    @Test
+    void fullLoadUsesMergedLoadAndBucketsOnlyKeys() {
+        ConfigSnapshot snapshot = provider.fetchSnapshot(PROFILES);
+
+        assertThat(table.mergedLoads).isEqualTo(1);
+        assertThat(table.requestedBuckets).isEmpty();
+        assertThat(snapshot.properties()).containsEntry("d2", "1");
+    }
+
+    @Test
+    void unchangedDigestsGiveEmptyDelta() {
+        ConfigSnapshot snapshot = provider.fetchSnapshot(PROFILES);
+
+        ConfigDelta delta = provider.fetchDelta(PROFILES, snapshot.version()).orElseThrow();
+
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(table.requestedBuckets).isEmpty();
+    }
+
+    @Test
+    void laterDeltasStartFromUpdatedBucketState() {
+        ConfigSnapshot snapshot = provider.fetchSnapshot(PROFILES);
+        table.put("f1", "1");
+        ConfigDelta added = provider.fetchDelta(PROFILES, snapshot.version()).orElseThrow();
+        assertThat(added.upserts()).containsOnlyKeys("b1", "c1", "f1");
+
+        table.remove("f1");
+        ConfigDelta removed = provider.fetchDelta(PROFILES, added.version()).orElseThrow();
+        assertThat(removed.removals()).containsExactly("f1");
+
+        assertThat(provider.fetchDelta(PROFILES, removed.version()).orElseThrow().isEmpty()).isTrue();
+    }
+
+    @Test
+    void fallsBackToFullLoadWhenMostBucketsChanged() {
+        ConfigSnapshot snapshot = provider.fetchSnapshot(PROFILES);
+        table.put("a0", "2");
+        table.put("b1", "2");
+        table.put("d2", "2");
+
+        Optional<ConfigDelta> delta = provider.fetchDelta(PROFILES, snapshot.version());
+
+        assertThat(delta.isPresent()).isFalse();
+        assertThat(table.requestedBuckets).isEmpty();
+    }
+
+    @Test
+    void fallsBackToFullLoadWhenProfilesChanged() {
+        ConfigSnapshot snapshot = provider.fetchSnapshot(PROFILES);
+
+        assertThat(provider.fetchDelta(new ActiveProfiles(List.of("prod")), snapshot.version()).isPresent()).isFalse();
+    }
+
+    // Rows keyed by name; the digit at the end of each key is its bucket. Digests change whenever a bucket's rows do.
+    private static final class BucketTable extends DbConfigJdbcRepository {
+
+        private final Map<String, String> rows = new TreeMap<>();
+        private final List<List<Integer>> requestedBuckets = new ArrayList<>();
+        private long version;
+        private int mergedLoads;
+
+        private BucketTable(JdbcConfigSourceProperties properties) {
+            super(null, properties, DbConfigSqlDialect.POSTGRESQL);
+        }
+
+        private void put(String key, String value) {
+            rows.put(key, value);
+            version++;
+        }
+
+        private void remove(String key) {
+            rows.remove(key);
+            version++;
+        }
+
+        @Override
+        public ConfigVersion getCurrentVersion(List<String> profiles) {
+            return ConfigVersion.ofSequence(version);
+        }
+
+        @Override
+        public Map<Integer, String> loadBucketDigests(List<String> profiles) {
+            Map<Integer, String> digests = new HashMap<>();
+            rows.forEach((key, value) -> digests.merge(bucket(key), key + "=" + value, (left, right) -> left + "," + right));
+            return digests;
+        }
+
+        @Override
+        public Map<String, Object> loadMergedForProfiles(List<String> profiles) {
+            mergedLoads++;
+            return new HashMap<>(rows);
+        }
+
+        @Override
+        public Map<Integer, Set<String>> loadBucketKeys(List<String> profiles) {
+            return loadBuckets(profiles, null).keysByBucket();
+        }
+
+        @Override
+        public BucketRows loadBuckets(List<String> profiles, Collection<Integer> buckets) {
+            if (buckets != null) {
+                requestedBuckets.add(List.copyOf(buckets));
+            }
+            Map<String, Object> properties = new HashMap<>();
+            Map<Integer, Set<String>> keysByBucket = new HashMap<>();
+            rows.forEach((key, value) -> {
+                if (buckets == null || buckets.contains(bucket(key))) {
+                    properties.put(key, value);
+                    keysByBucket.computeIfAbsent(bucket(key), bucket -> new HashSet<>()).add(key);
+                }
+            });
+            return new BucketRows(properties, keysByBucket);
+        }
+
+        private static int bucket(String key) {
+            return key.charAt(key.length() - 1) - '0';
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import com.example.dbconfig.refresh.ConfigRefreshOrchestrator;
+import com.example.dbconfig.refresh.DbConfigCoreAutoConfiguration;
+import com.example.dbconfig.refresh.DbConfigTenantRefresher;
+import com.example.dbconfig.refresh.DbConfigTenantSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class JdbcConfigSourceAutoConfigurationTest {
+
+    // The core auto-configuration is listed first on purpose: the ordering must come from the annotations.
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DbConfigCoreAutoConfiguration.class, JdbcConfigSourceAutoConfiguration.class,
+                    JdbcTemplateAutoConfiguration.class))
+            .withBean(DataSource.class, () -> new DriverManagerDataSource("jdbc:unavailable:dbconfig"))
+            .withPropertyValues("dbconfig.source.jdbc.dialect=POSTGRESQL", "dbconfig.refresh.polling.enabled=false",
+                    "dbconfig.refresh.metrics.enabled=false");
+
+    @Test
+    void createsOrchestratorForJdbcProvider() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(JdbcConfigSnapshotProvider.class);
+            assertThat(context).hasSingleBean(ConfigRefreshOrchestrator.class);
+            assertThat(context).doesNotHaveBean(DbConfigTenantSource.class);
+        });
+    }
+
+    @Test
+    void createsTenantBeansWhenTenantColumnIsConfigured() {
+        contextRunner.withPropertyValues("dbconfig.source.jdbc.column.tenant=tenant_id").run(context -> {
+            assertThat(context).hasSingleBean(JdbcTenantConfigSnapshotProvider.class);
+            assertThat(context).hasSingleBean(DbConfigTenantSource.class);
+            assertThat(context).hasSingleBean(DbConfigTenantRefresher.class);
+        });
+    }
+}
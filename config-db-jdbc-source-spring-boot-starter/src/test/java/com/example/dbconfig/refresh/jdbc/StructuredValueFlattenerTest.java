@@ -0,0 +1,112 @@
+package com.example.dbconfig.refresh.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.dbconfig.core.ConfigDelta;
+import com.example.dbconfig.core.ConfigVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StructuredValueFlattenerTest {
+
+    private StructuredValueFlattener flattener;
+
+    @BeforeEach
+    void setUp() {
+        JdbcConfigSourceProperties.Structured properties = new JdbcConfigSourceProperties.Structured();
+        properties.setKeys(List.of("feature"));
+        flattener = new StructuredValueFlattener(properties);
+    }
+
+    @Test
+    void snapshotPrefersPlainRowsOverDocumentKeys() {
+        Map<String, Object> flattened = flattener.flattenSnapshot(Map.of("feature", "beta: true\nhosts: [a, b]", "feature.beta", "plain"));
+
+        assertThat(flattened).containsOnlyKeys("feature.beta", "feature.hosts[0]", "feature.hosts[1]");
+        assertThat(flattened).containsEntry("feature.beta", "plain");
+    }
+
+    @Test
+    void documentChangeDoesNotOverridePlainRow() {
+        flattener.flattenSnapshot(Map.of("feature", "beta: true", "feature.beta", "plain"));
+
+        ConfigDelta delta = flattener.flattenDelta(delta(Map.of("feature", "beta: false\nlimit: 3"), Set.of()));
+
+        assertThat(delta.upserts()).containsEntry("feature.limit", 3);
+        assertThat(delta.upserts()).doesNotContainKey("feature.beta");
+        assertThat(delta.removals()).doesNotContain("feature.beta");
+    }
+
+    @Test
+    void removingDocumentKeepsCollidingPlainRow() {
+        flattener.flattenSnapshot(Map.of("feature", "beta: true\nlimit: 3", "feature.beta", "plain"));
+
+        ConfigDelta delta = flattener.flattenDelta(delta(Map.of(), Set.of("feature")));
+
+        assertThat(delta.removals()).contains("feature.limit");
+        assertThat(delta.removals()).doesNotContain("feature.beta");
+        assertThat(delta.upserts()).isEmpty();
+    }
+
+    @Test
+    void plainRowOverridesAndThenRestoresDocumentKey() {
+        flattener.flattenSnapshot(Map.of("feature", "beta: true"));
+
+        ConfigDelta added = flattener.flattenDelta(delta(Map.of("feature.beta", "plain"), Set.of()));
+        assertThat(added.upserts()).containsEntry("feature.beta", "plain");
+
+        ConfigDelta removed = flattener.flattenDelta(delta(Map.of(), Set.of("feature.beta")));
+        assertThat(removed.upserts()).containsEntry("feature.beta", true);
+        assertThat(removed.removals()).isEmpty();
+    }
+
+    @Test
+    void rawKeyIsRemovedOnceAFailedDocumentParses() {
+        Map<String, Object> flattened = flattener.flattenSnapshot(Map.of("feature", "beta: [unclosed"));
+        assertThat(flattened).containsEntry("feature", "beta: [unclosed");
+
+        ConfigDelta delta = flattener.flattenDelta(delta(Map.of("feature", "beta: true"), Set.of()));
+
+        assertThat(delta.upserts()).containsEntry("feature.beta", true);
+        assertThat(delta.upserts()).doesNotContainKey("feature");
+        assertThat(delta.removals()).contains("feature");
+    }
+
+    @Test
+    void documentThatStopsParsingRestoresRawKey() {
+        flattener.flattenSnapshot(Map.of("feature", "beta: true"));
+
+        ConfigDelta delta = flattener.flattenDelta(delta(Map.of("feature", "beta: [unclosed"), Set.of()));
+
+        assertThat(delta.upserts()).containsEntry("feature", "beta: [unclosed");
+        assertThat(delta.removals()).contains("feature.beta");
+    }
+
+    @Test
+    void longestDocumentKeyWinsCollidingPaths() {
+        JdbcConfigSourceProperties.Structured properties = new JdbcConfigSourceProperties.Structured();
+        properties.setKeys(List.of("feature", "feature.flags"));
+        StructuredValueFlattener nested = new StructuredValueFlattener(properties);
+
+        Map<String, Object> flattened = nested.flattenSnapshot(Map.of("feature", "flags:\n  beta: outer\nlimit: 3", "feature.flags", "beta: inner"));
+        assertThat(flattened).containsEntry("feature.flags.beta", "inner");
+
+        ConfigDelta outerChanged = nested.flattenDelta(delta(Map.of("feature", "flags:\n  beta: changed"), Set.of()));
+        assertThat(outerChanged.upserts()).containsEntry("feature.flags.beta", "inner");
+        assertThat(outerChanged.removals()).contains("feature.limit");
+        assertThat(outerChanged.removals()).doesNotContain("feature.flags.beta");
+
+        ConfigDelta innerRemoved = nested.flattenDelta(delta(Map.of(), Set.of("feature.flags")));
+        assertThat(innerRemoved.upserts()).containsEntry("feature.flags.beta", "changed");
+        assertThat(innerRemoved.removals()).doesNotContain("feature.flags.beta");
+    }
+
+    private static ConfigDelta delta(Map<String, Object> upserts, Set<String> removals) {
+        return new ConfigDelta(upserts, removals, ConfigVersion.ofSequence(2), Instant.now());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dbconfig.refresh.postgres;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.example.dbconfig.refresh.jdbc.DbConfigBulkLoader;
+import com.example.dbconfig.refresh.jdbc.JdbcConfigSourceProperties;
+
+@AutoConfiguration
+@ConditionalOnClass({ PGConnection.class, DbConfigBulkLoader.class })
+@ConditionalOnProperty(prefix = "dbconfig.source.jdbc.postgres-copy", name = "enabled", havingValue = "true")
+public class PostgresCopyLoaderAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    DbConfigBulkLoader postgresCopySnapshotLoader(ObjectProvider<JdbcConfigSourceProperties> properties) {
+        return new PostgresCopySnapshotLoader(properties.getIfAvailable(JdbcConfigSourceProperties::new).getStatementTimeout());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dbconfig.refresh.postgres;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import com.example.dbconfig.core.RefreshDeadline;
+import com.example.dbconfig.core.SnapshotProperties;
+import com.example.dbconfig.refresh.jdbc.DbConfigBulkLoader;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+final class PostgresCopySnapshotLoader implements DbConfigBulkLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCopySnapshotLoader.class);
+    private static final byte[] SIGNATURE = { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Duration statementTimeout;
+
+    PostgresCopySnapshotLoader(Duration statementTimeout) {
+        this.statementTimeout = statementTimeout;
+    }
+
+    @Override
+    public Map<String, Object> loadKeyValues(DataSource dataSource, String sql) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        boolean sessionTimeout = false;
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            long timeoutMillis = timeoutMillis(RefreshDeadline.current());
+            if (timeoutMillis > 0) {
+                // COPY ignores JDBC query timeouts. SET LOCAL ends with the surrounding transaction; in autocommit it
+                // would be a no-op, so the session setting is used there and reset afterwards.
+                sessionTimeout = connection.getAutoCommit();
+                execute(connection, (sessionTimeout ? "SET" : "SET LOCAL") + " statement_timeout = " + timeoutMillis);
+            }
+            PGCopyInputStream copy = new PGCopyInputStream(pgConnection, "COPY (" + sql + ") TO STDOUT (FORMAT binary)");
+            RefreshDeadline.Handle cancel = RefreshDeadline.current().onExpiry(() -> cancelQuietly(pgConnection));
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(copy, BUFFER_SIZE))) {
+                return decode(in);
+            }
+            finally {
+                cancel.close();
+            }
+        }
+        catch (SQLException | IOException ex) {
+            throw new DataAccessResourceFailureException("COPY snapshot load failed", ex);
+        }
+        finally {
+            if (sessionTimeout) {
+                resetQuietly(connection);
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    // min(statement-timeout, remaining deadline), as the JDBC repository applies per statement; 0 means none.
+    long timeoutMillis(RefreshDeadline deadline) {
+        Duration timeout = statementTimeout == null || statementTimeout.isZero() || statementTimeout.isNegative() ? null : statementTimeout;
+        if (deadline.isBounded()) {
+            Duration remaining = deadline.remaining();
+            timeout = timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+        }
+        return timeout == null ? 0 : Math.max(1L, timeout.toMillis());
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void resetQuietly(Connection connection) {
+        try {
+            execute(connection, "RESET statement_timeout");
+        }
+        catch (SQLException ex) {
+            log.debug("Could not reset statement_timeout after COPY snapshot load", ex);
+        }
+    }
+
+    // Reads the binary COPY format: signature, flags, header extension, then one tuple per row until the -1 trailer.
+    // The first two fields are the key and value; a NULL value drops the key and any further columns are skipped.
+    static Map<String, Object> decode(DataInputStream in) throws IOException {
+        byte[] signature = new byte[SIGNATURE.length];
+        in.readFully(signature);
+        if (!Arrays.equals(signature, SIGNATURE)) {
+            throw new IOException("Unexpected COPY binary signature");
+        }
+        in.readInt();
+        in.skipNBytes(in.readInt());
+
+        SnapshotProperties.Builder properties = SnapshotProperties.builder();
+        byte[] buffer = new byte[256];
+        while (true) {
+            short fields = in.readShort();
+            if (fields == -1) {
+                break;
+            }
+            int keyLength = in.readInt();
+            buffer = fill(in, buffer, keyLength);
+            String key = new String(buffer, 0, keyLength, StandardCharsets.UTF_8);
+            int valueLength = in.readInt();
+            String value = null;
+            if (valueLength >= 0) {
+                buffer = fill(in, buffer, valueLength);
+                value = new String(buffer, 0, valueLength, StandardCharsets.UTF_8);
+            }
+            for (int i = 2; i < fields; i++) {
+                int length = in.readInt();
+                if (length > 0) {
+                    in.skipNBytes(length);
+                }
+            }
+            properties.put(key, value);
+        }
+        return properties.build();
+    }
+
+    private static byte[] fill(DataInputStream in, byte[] buffer, int length) throws IOException {
+        byte[] target = buffer.length >= length ? buffer : new byte[Math.max(length, buffer.length * 2)];
+        in.readFully(target, 0, length);
+        return target;
+    }
+
+    private static void cancelQuietly(PGConnection connection) {
+        try {
+            connection.cancelQuery();
+        }
+        catch (SQLException ex) {
+            log.debug("Could not cancel COPY snapshot load after refresh deadline", ex);
+        }
+    }
+}
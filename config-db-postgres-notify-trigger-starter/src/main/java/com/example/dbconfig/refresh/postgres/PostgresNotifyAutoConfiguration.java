@@ -4,6 +4,7 @@ import javax.sql.DataSource;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -16,6 +17,7 @@ import org.springframework.context.annotation.Configuration;
 
 import com.example.dbconfig.refresh.DbConfigRefreshProperties;
 import com.example.dbconfig.refresh.ConfigRefreshOrchestrator;
+import com.example.dbconfig.refresh.DbConfigConnectionPool;
 import com.example.dbconfig.refresh.DbConfigRefreshState;
 
 @AutoConfiguration
@@ -41,6 +43,7 @@ public class PostgresNotifyAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     PostgresNotifyListener postgresNotifyListener(DataSource dataSource,
+            ObjectProvider<DbConfigConnectionPool> connectionPool,
             ConfigRefreshOrchestrator orchestrator,
             DbConfigRefreshState state,
             DbConfigRefreshProperties refreshProperties,
@@ -50,7 +53,8 @@ public class PostgresNotifyAutoConfiguration {
         if (!properties.isFallbackPollingEnabled()) {
             refreshProperties.setPollingEnabled(false);
         }
-        return new PostgresNotifyListener(dataSource, orchestrator, state, properties, payloadInterpreter, metrics);
+        DbConfigConnectionPool pool = connectionPool.getIfAvailable();
+        return new PostgresNotifyListener(pool == null ? dataSource : pool.getDataSource(), orchestrator, state, properties, payloadInterpreter, metrics);
     }
 
     @Configuration(proxyBeanMethods = false)
@@ -17,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.SmartLifecycle;
 
 import com.example.dbconfig.refresh.ConfigRefreshOrchestrator;
+import com.example.dbconfig.core.ConfigVersion;
 import com.example.dbconfig.core.TriggerReason;
 import com.example.dbconfig.refresh.DbConfigRefreshState;
 
@@ -178,10 +179,11 @@ public class PostgresNotifyListener implements SmartLifecycle {
             return;
         }
 
-        PostgresNotifyPayloadInterpreter.NotifyDecision decision = payloadInterpreter.evaluate(payload, state.getLastDbVersionSeen());
+        PostgresNotifyPayloadInterpreter.NotifyDecision decision = payloadInterpreter.evaluate(payload, state.getLastConfigVersion());
         if (!decision.shouldRefresh()) {
             return;
         }
+        state.setLastNotifiedVersion(decision.payloadVersion());
 
         Instant now = clock.instant();
         if (now.isBefore(nextRefreshNotBefore)) {
@@ -192,7 +194,7 @@ public class PostgresNotifyListener implements SmartLifecycle {
         orchestrator.requestRefresh(TriggerReason.EVENT);
         metrics.incrementNotifyRefreshTriggered();
         if (true) {
-            Instant payloadVersion = decision.payloadVersion();
+            ConfigVersion payloadVersion = decision.payloadVersion();
             if (payloadVersion != null) {
                 state.setLastNotifyAt(now);
             }
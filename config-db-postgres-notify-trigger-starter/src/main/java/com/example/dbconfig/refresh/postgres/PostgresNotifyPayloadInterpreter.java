@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Iterator;
 
+import com.example.dbconfig.core.ConfigVersion;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -17,7 +18,7 @@ final class PostgresNotifyPayloadInterpreter {
         this.objectMapper = objectMapper;
     }
 
-    NotifyDecision evaluate(String payload, Instant lastSeenVersion) {
+    NotifyDecision evaluate(String payload, ConfigVersion lastSeenVersion) {
         if (payload == null || payload.isBlank()) {
             return NotifyDecision.refresh(null);
         }
@@ -29,16 +30,16 @@ final class PostgresNotifyPayloadInterpreter {
         };
     }
 
-    private NotifyDecision evaluateJson(String payload, Instant lastSeenVersion) {
+    private NotifyDecision evaluateJson(String payload, ConfigVersion lastSeenVersion) {
         if (objectMapper == null) {
             return NotifyDecision.refresh(null);
         }
         try {
             JsonNode root = objectMapper.readTree(payload);
-            Instant payloadVersion = null;
+            ConfigVersion payloadVersion = null;
             JsonNode versionNode = root.path("version");
             if (!versionNode.isMissingNode() && !versionNode.isNull()) {
-                payloadVersion = parseInstant(versionNode.asText());
+                payloadVersion = parseVersion(versionNode.asText(), lastSeenVersion);
             }
             JsonNode profilesNode = root.path("profiles");
             if (profilesNode.isArray()) {
@@ -54,30 +55,37 @@ final class PostgresNotifyPayloadInterpreter {
         }
     }
 
-    private NotifyDecision evaluateVersion(String payload, Instant lastSeenVersion) {
-        return shouldRefreshForVersion(parseInstant(payload), lastSeenVersion);
+    private NotifyDecision evaluateVersion(String payload, ConfigVersion lastSeenVersion) {
+        return shouldRefreshForVersion(parseVersion(payload, lastSeenVersion), lastSeenVersion);
     }
 
-    private NotifyDecision shouldRefreshForVersion(Instant payloadVersion, Instant lastSeenVersion) {
+    private NotifyDecision shouldRefreshForVersion(ConfigVersion payloadVersion, ConfigVersion lastSeenVersion) {
         if (payloadVersion == null) {
             return NotifyDecision.refresh(null);
         }
-        if (lastSeenVersion != null && !payloadVersion.isAfter(lastSeenVersion)) {
+        if (lastSeenVersion != null
+                && payloadVersion.isSequenceBased() == lastSeenVersion.isSequenceBased()
+                && !payloadVersion.isNewerThan(lastSeenVersion)) {
             return NotifyDecision.ignore(payloadVersion);
         }
         return NotifyDecision.refresh(payloadVersion);
     }
 
-    private Instant parseInstant(String raw) {
+    private ConfigVersion parseVersion(String raw, ConfigVersion lastSeenVersion) {
         if (raw == null || raw.isBlank()) {
             return null;
         }
         try {
-            return Instant.ofEpochMilli(Long.parseLong(raw));
+            long numeric = Long.parseLong(raw);
+            // Numeric payloads are sequence numbers when the source is sequence-versioned, epoch millis otherwise.
+            if (lastSeenVersion != null && lastSeenVersion.isSequenceBased()) {
+                return ConfigVersion.ofSequence(numeric);
+            }
+            return ConfigVersion.ofInstant(Instant.ofEpochMilli(numeric));
         }
         catch (NumberFormatException ignored) {
             try {
-                return Instant.parse(raw);
+                return ConfigVersion.ofInstant(Instant.parse(raw));
             }
             catch (DateTimeParseException ex) {
                 return null;
@@ -85,13 +93,13 @@ final class PostgresNotifyPayloadInterpreter {
         }
     }
 
-    record NotifyDecision(boolean shouldRefresh, Instant payloadVersion) {
+    record NotifyDecision(boolean shouldRefresh, ConfigVersion payloadVersion) {
 
-        static NotifyDecision refresh(Instant payloadVersion) {
+        static NotifyDecision refresh(ConfigVersion payloadVersion) {
             return new NotifyDecision(true, payloadVersion);
         }
 
-        static NotifyDecision ignore(Instant payloadVersion) {
+        static NotifyDecision ignore(ConfigVersion payloadVersion) {
             return new NotifyDecision(false, payloadVersion);
         }
     }
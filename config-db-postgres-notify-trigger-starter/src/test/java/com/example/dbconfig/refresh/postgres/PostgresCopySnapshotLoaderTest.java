@@ -0,0 +1,159 @@
+package com.example.dbconfig.refresh.postgres;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.example.dbconfig.core.RefreshDeadline;
+import org.junit.jupiter.api.Test;
+
+class PostgresCopySnapshotLoaderTest {
+
+    @Test
+    void statementTimeoutIsCappedByRemainingDeadline() {
+        PostgresCopySnapshotLoader loader = new PostgresCopySnapshotLoader(Duration.ofSeconds(10));
+
+        assertThat(loader.timeoutMillis(RefreshDeadline.none())).isEqualTo(10_000L);
+        assertThat(loader.timeoutMillis(RefreshDeadline.after(Duration.ofSeconds(2)))).isLessThan(2_001L);
+        assertThat(new PostgresCopySnapshotLoader(Duration.ZERO).timeoutMillis(RefreshDeadline.none())).isZero();
+    }
+
+    @Test
+    void decodesKeysAndValues() throws IOException {
+        byte[] stream = new CopyStream().row("demo.a", "1").row("demo.\u00fcnicode", "wert \u2713").end();
+
+        Map<String, Object> properties = decode(stream);
+
+        assertThat(properties).hasSize(2);
+        assertThat(properties).containsEntry("demo.a", "1");
+        assertThat(properties).containsEntry("demo.\u00fcnicode", "wert \u2713");
+    }
+
+    @Test
+    void nullValueDropsKey() throws IOException {
+        byte[] stream = new CopyStream().row("demo.a", "1").row("demo.unset", null).end();
+
+        Map<String, Object> properties = decode(stream);
+
+        assertThat(properties).containsOnlyKeys("demo.a");
+    }
+
+    @Test
+    void skipsExtraColumnsIncludingNulls() throws IOException {
+        byte[] stream = new CopyStream().row("demo.a", "1", "extra", null).row("demo.b", "2", null, "more").end();
+
+        Map<String, Object> properties = decode(stream);
+
+        assertThat(properties).hasSize(2);
+        assertThat(properties).containsEntry("demo.a", "1");
+        assertThat(properties).containsEntry("demo.b", "2");
+    }
+
+    @Test
+    void growsBufferForLongValues() throws IOException {
+        char[] chars = new char[10_000];
+        Arrays.fill(chars, 'x');
+        String longValue = new String(chars);
+        byte[] stream = new CopyStream().row("demo.long", longValue).row("demo.short", "s").end();
+
+        Map<String, Object> properties = decode(stream);
+
+        assertThat(properties).containsEntry("demo.long", longValue);
+        assertThat(properties).containsEntry("demo.short", "s");
+    }
+
+    @Test
+    void skipsHeaderExtension() throws IOException {
+        byte[] stream = new CopyStream(new byte[] { 1, 2, 3, 4, 5 }).row("demo.a", "1").end();
+
+        assertThat(decode(stream)).containsEntry("demo.a", "1");
+    }
+
+    @Test
+    void emptyResultHasNoKeys() throws IOException {
+        assertThat(decode(new CopyStream().end())).isEmpty();
+    }
+
+    @Test
+    void rejectsUnexpectedSignature() {
+        byte[] stream = new CopyStream().row("demo.a", "1").end();
+        stream[0] = 'X';
+
+        assertThatThrownBy(() -> decode(stream)).isInstanceOf(IOException.class).hasMessageContaining("signature");
+    }
+
+    @Test
+    void truncatedStreamFails() {
+        byte[] stream = new CopyStream().row("demo.a", "1").row("demo.b", "22").end();
+
+        // Cut inside the value of the second row, then before the trailer.
+        assertThatThrownBy(() -> decode(Arrays.copyOf(stream, stream.length - 3))).isInstanceOf(EOFException.class);
+        assertThatThrownBy(() -> decode(Arrays.copyOf(stream, stream.length - 2))).isInstanceOf(EOFException.class);
+    }
+
+    private static Map<String, Object> decode(byte[] stream) throws IOException {
+        return PostgresCopySnapshotLoader.decode(new DataInputStream(new ByteArrayInputStream(stream)));
+    }
+
+    // Writes the PostgreSQL binary COPY format: signature, flags, header extension, tuples and the -1 trailer.
+    private static final class CopyStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private CopyStream() {
+            this(new byte[0]);
+        }
+
+        private CopyStream(byte[] headerExtension) {
+            try {
+                out.write(new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 });
+                out.writeInt(0);
+                out.writeInt(headerExtension.length);
+                out.write(headerExtension);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        private CopyStream row(String... fields) {
+            try {
+                out.writeShort(fields.length);
+                for (String field : fields) {
+                    if (field == null) {
+                        out.writeInt(-1);
+                        continue;
+                    }
+                    byte[] encoded = field.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(encoded.length);
+                    out.write(encoded);
+                }
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return this;
+        }
+
+        private byte[] end() {
+            try {
+                out.writeShort(-1);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
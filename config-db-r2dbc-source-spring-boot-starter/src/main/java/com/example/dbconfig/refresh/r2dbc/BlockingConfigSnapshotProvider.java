@@ -0,0 +1,49 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigSnapshot;
+import com.example.dbconfig.core.ConfigSnapshotProvider;
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.RefreshDeadline;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes a {@link ReactiveConfigSnapshotProvider} to the blocking orchestrator for the startup load, the polling
+ * trigger and the actuator endpoint, all of which run on their own threads. Waits are capped by the active
+ * {@link RefreshDeadline}; Reactor refuses to block on event-loop threads, so this adapter cannot stall one.
+ */
+public class BlockingConfigSnapshotProvider implements ConfigSnapshotProvider {
+
+    private final ReactiveConfigSnapshotProvider delegate;
+
+    public BlockingConfigSnapshotProvider(ReactiveConfigSnapshotProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<ConfigVersion> fetchVersion() {
+        return fetchVersion(new ActiveProfiles(List.of()));
+    }
+
+    @Override
+    public Optional<ConfigVersion> fetchVersion(ActiveProfiles profiles) {
+        return Optional.ofNullable(await(delegate.fetchVersion(profiles)));
+    }
+
+    @Override
+    public ConfigSnapshot fetchSnapshot(ActiveProfiles profiles) {
+        ConfigSnapshot snapshot = await(delegate.fetchSnapshot(profiles));
+        if (snapshot == null) {
+            throw new IllegalStateException("Reactive snapshot provider completed without a snapshot");
+        }
+        return snapshot;
+    }
+
+    private static <T> T await(Mono<T> result) {
+        RefreshDeadline deadline = RefreshDeadline.current();
+        return deadline.isBounded() ? result.block(deadline.remaining()) : result.block();
+    }
+}
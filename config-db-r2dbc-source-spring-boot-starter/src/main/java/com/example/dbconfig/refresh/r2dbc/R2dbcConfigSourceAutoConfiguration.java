@@ -0,0 +1,28 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import com.example.dbconfig.core.ConfigSnapshotProvider;
+import com.example.dbconfig.refresh.DbConfigCoreAutoConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+// Ahead of the JDBC source, so its provider backs off when both drivers are on the classpath.
+@AutoConfiguration(after = R2dbcAutoConfiguration.class, before = DbConfigCoreAutoConfiguration.class,
+        beforeName = "com.example.dbconfig.refresh.jdbc.JdbcConfigSourceAutoConfiguration")
+@ConditionalOnClass({ ConnectionFactory.class, DatabaseClient.class })
+@ConditionalOnBean(ConnectionFactory.class)
+@ConditionalOnProperty(prefix = "dbconfig.source.r2dbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(R2dbcConfigSourceProperties.class)
+public class R2dbcConfigSourceAutoConfiguration {
+    @Bean @ConditionalOnMissingBean(ReactiveConfigSnapshotProvider.class)
+    R2dbcConfigSnapshotProvider r2dbcConfigSnapshotProvider(ConnectionFactory connectionFactory, R2dbcConfigSourceProperties properties) { return new R2dbcConfigSnapshotProvider(DatabaseClient.create(connectionFactory), properties); }
+    @Bean @ConditionalOnMissingBean(ConfigSnapshotProvider.class)
+    BlockingConfigSnapshotProvider blockingConfigSnapshotProvider(ReactiveConfigSnapshotProvider snapshotProvider) { return new BlockingConfigSnapshotProvider(snapshotProvider); }
+}
@@ -0,0 +1,29 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "dbconfig.source.r2dbc")
+public class R2dbcConfigSourceProperties {
+    private boolean enabled = true;
+    private String table = "db_config_properties";
+    private Columns column = new Columns();
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getTable() { return table; }
+    public void setTable(String table) { this.table = table; }
+    public Columns getColumn() { return column; }
+    public static class Columns {
+        private String key = "prop_key";
+        private String profile = "profile";
+        private String value = "prop_value";
+        private String updatedAt = "updated_at";
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+        public String getProfile() { return profile; }
+        public void setProfile(String profile) { this.profile = profile; }
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+        public String getUpdatedAt() { return updatedAt; }
+        public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
+    }
+}
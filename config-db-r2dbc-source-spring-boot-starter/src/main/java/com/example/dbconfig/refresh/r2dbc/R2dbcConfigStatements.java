@@ -0,0 +1,58 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import java.util.regex.Pattern;
+
+/**
+ * SQL for the R2DBC source, rendered once from the configured table and columns. Profiles are bound as named
+ * parameters {@code :profile0..n}; the merged load orders rows by layer so later rows override earlier ones.
+ */
+final class R2dbcConfigStatements {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+
+    private final String profile;
+    private final String lastUpdated;
+    private final String selectKeyValue;
+
+    R2dbcConfigStatements(R2dbcConfigSourceProperties properties) {
+        R2dbcConfigSourceProperties.Columns columns = properties.getColumn();
+        String table = identifier("table", properties.getTable());
+        this.profile = identifier("column.profile", columns.getProfile());
+        this.lastUpdated = "SELECT MAX(" + identifier("column.updated-at", columns.getUpdatedAt()) + ") AS last_updated FROM " + table;
+        this.selectKeyValue = "SELECT " + identifier("column.key", columns.getKey()) + " AS prop_key, "
+                + identifier("column.value", columns.getValue()) + " AS prop_value FROM " + table;
+    }
+
+    String lastUpdated() {
+        return lastUpdated;
+    }
+
+    String mergedLoad(int profileCount) {
+        if (profileCount == 0) {
+            return selectKeyValue + " WHERE " + profile + " IS NULL";
+        }
+        StringBuilder in = new StringBuilder();
+        StringBuilder rank = new StringBuilder("CASE ").append(profile);
+        for (int i = 0; i < profileCount; i++) {
+            in.append(i == 0 ? "" : ", ").append(parameter(i));
+            rank.append(" WHEN ").append(parameter(i)).append(" THEN ").append(i + 1);
+        }
+        rank.append(" ELSE 0 END");
+        return selectKeyValue + " WHERE (" + profile + " IS NULL OR " + profile + " IN (" + in + ")) ORDER BY " + rank;
+    }
+
+    static String parameterName(int index) {
+        return "profile" + index;
+    }
+
+    private static String parameter(int index) {
+        return ":" + parameterName(index);
+    }
+
+    private static String identifier(String property, String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("dbconfig.source.r2dbc." + property + " is not a valid SQL identifier: " + name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigVersion;
+import com.example.dbconfig.core.TriggerReason;
+import com.example.dbconfig.refresh.ConfigRefreshOrchestrator;
+import com.example.dbconfig.refresh.DbConfigRefreshProperties;
+import com.example.dbconfig.refresh.RefreshResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Reactive entry points for refreshing from an event loop. The version probe and the snapshot load run on the
+ * driver without blocking; only applying the snapshot, which swaps the property source and publishes the update
+ * event to possibly blocking listeners, moves to the bounded-elastic scheduler. Retry and deadline come from the
+ * same {@code dbconfig.retry} and {@code dbconfig.refresh.deadline} settings as the blocking path.
+ */
+public class ReactiveConfigRefresher {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveConfigRefresher.class);
+
+    private final ReactiveConfigSnapshotProvider snapshotProvider;
+    private final ConfigRefreshOrchestrator orchestrator;
+    private final DbConfigRefreshProperties properties;
+    private final Clock clock;
+
+    public ReactiveConfigRefresher(ReactiveConfigSnapshotProvider snapshotProvider,
+            ConfigRefreshOrchestrator orchestrator,
+            DbConfigRefreshProperties properties) {
+        this(snapshotProvider, orchestrator, properties, Clock.systemUTC());
+    }
+
+    ReactiveConfigRefresher(ReactiveConfigSnapshotProvider snapshotProvider,
+            ConfigRefreshOrchestrator orchestrator,
+            DbConfigRefreshProperties properties,
+            Clock clock) {
+        this.snapshotProvider = snapshotProvider;
+        this.orchestrator = orchestrator;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public Mono<ConfigVersion> fetchVersion() {
+        return Mono.defer(() -> withDeadline(withRetry("fetchVersion",
+                snapshotProvider.fetchVersion(new ActiveProfiles(orchestrator.getActiveProfiles())))));
+    }
+
+    public Mono<RefreshResult> requestRefresh(TriggerReason reason) {
+        return Mono.defer(() -> {
+            Instant start = clock.instant();
+            ActiveProfiles profiles = new ActiveProfiles(orchestrator.getActiveProfiles());
+            return withDeadline(withRetry("fetchVersion", snapshotProvider.fetchVersion(profiles))
+                            .filter(version -> reason == TriggerReason.MANUAL || !orchestrator.isApplied(version, profiles.values()))
+                            .flatMap(version -> withRetry("fetchSnapshot", snapshotProvider.fetchSnapshot(profiles))))
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(snapshot -> orchestrator.applySnapshot(snapshot, reason, start))
+                    .switchIfEmpty(Mono.fromSupplier(() -> new RefreshResult(true, 0, orchestrator.getAppliedVersion(),
+                            Duration.between(start, clock.instant()).toMillis(), reason.name(), "No changes")))
+                    .onErrorResume(Exception.class, ex -> Mono.fromCallable(() -> orchestrator.recordFailure(reason, start, asRuntimeException(ex))));
+        });
+    }
+
+    private <T> Mono<T> withRetry(String operationName, Mono<T> operation) {
+        DbConfigRefreshProperties.Retry retry = properties.getRetry();
+        if (retry.getMaxAttempts() <= 1) {
+            return operation;
+        }
+        return operation.retryWhen(Retry.backoff(retry.getMaxAttempts() - 1, retry.getInitialBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .doBeforeRetry(signal -> log.debug("Operation '{}' failed at attempt {}/{}. Retrying.",
+                        operationName, signal.totalRetries() + 1, retry.getMaxAttempts(), signal.failure()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    // The deadline surfaces as a checked TimeoutException.
+    private static RuntimeException asRuntimeException(Exception ex) {
+        return ex instanceof RuntimeException runtime ? runtime : new IllegalStateException("Refresh did not finish within the deadline", ex);
+    }
+
+    private <T> Mono<T> withDeadline(Mono<T> operation) {
+        Duration deadline = properties.getRefresh().getDeadline();
+        if (deadline == null || deadline.isZero() || deadline.isNegative()) {
+            return operation;
+        }
+        return operation.timeout(deadline);
+    }
+}
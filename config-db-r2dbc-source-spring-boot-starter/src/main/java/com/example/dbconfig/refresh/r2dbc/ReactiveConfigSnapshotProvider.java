@@ -0,0 +1,17 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import com.example.dbconfig.core.ActiveProfiles;
+import com.example.dbconfig.core.ConfigSnapshot;
+import com.example.dbconfig.core.ConfigVersion;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link com.example.dbconfig.core.ConfigSnapshotProvider}. Both calls must return cold
+ * publishers that never block, since retries resubscribe and results complete on the driver's threads.
+ */
+public interface ReactiveConfigSnapshotProvider {
+
+    Mono<ConfigVersion> fetchVersion(ActiveProfiles profiles);
+
+    Mono<ConfigSnapshot> fetchSnapshot(ActiveProfiles profiles);
+}
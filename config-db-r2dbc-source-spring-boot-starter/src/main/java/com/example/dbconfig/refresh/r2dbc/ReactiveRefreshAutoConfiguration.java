@@ -0,0 +1,16 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import com.example.dbconfig.refresh.ConfigRefreshOrchestrator;
+import com.example.dbconfig.refresh.DbConfigCoreAutoConfiguration;
+import com.example.dbconfig.refresh.DbConfigRefreshProperties;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration(after = { R2dbcConfigSourceAutoConfiguration.class, DbConfigCoreAutoConfiguration.class })
+@ConditionalOnBean({ ReactiveConfigSnapshotProvider.class, ConfigRefreshOrchestrator.class })
+public class ReactiveRefreshAutoConfiguration {
+    @Bean @ConditionalOnMissingBean
+    ReactiveConfigRefresher reactiveConfigRefresher(ReactiveConfigSnapshotProvider snapshotProvider, ConfigRefreshOrchestrator orchestrator, DbConfigRefreshProperties properties) { return new ReactiveConfigRefresher(snapshotProvider, orchestrator, properties); }
+}
@@ -0,0 +1,44 @@
+package com.example.dbconfig.refresh.r2dbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class R2dbcConfigStatementsTest {
+
+    @Test
+    void rendersConfiguredTableAndColumns() {
+        R2dbcConfigSourceProperties properties = new R2dbcConfigSourceProperties();
+        properties.setTable("app.settings");
+        properties.getColumn().setKey("name");
+        properties.getColumn().setProfile("env");
+        properties.getColumn().setValue("val");
+        properties.getColumn().setUpdatedAt("modified");
+
+        R2dbcConfigStatements statements = new R2dbcConfigStatements(properties);
+
+        assertThat(statements.lastUpdated()).isEqualTo("SELECT MAX(modified) AS last_updated FROM app.settings");
+        assertThat(statements.mergedLoad(0)).isEqualTo("SELECT name AS prop_key, val AS prop_value FROM app.settings WHERE env IS NULL");
+    }
+
+    @Test
+    void mergedLoadBindsProfilesByNameAndOrdersByLayer() {
+        R2dbcConfigStatements statements = new R2dbcConfigStatements(new R2dbcConfigSourceProperties());
+
+        assertThat(statements.mergedLoad(2)).isEqualTo("SELECT prop_key AS prop_key, prop_value AS prop_value FROM db_config_properties"
+                + " WHERE (profile IS NULL OR profile IN (:profile0, :profile1))"
+                + " ORDER BY CASE profile WHEN :profile0 THEN 1 WHEN :profile1 THEN 2 ELSE 0 END");
+        assertThat(R2dbcConfigStatements.parameterName(1)).isEqualTo("profile1");
+    }
+
+    @Test
+    void rejectsIdentifiersThatAreNotPlainNames() {
+        R2dbcConfigSourceProperties properties = new R2dbcConfigSourceProperties();
+        properties.getColumn().setValue("prop_value FROM secrets --");
+
+        assertThatThrownBy(() -> new R2dbcConfigStatements(properties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("column.value");
+    }
+}